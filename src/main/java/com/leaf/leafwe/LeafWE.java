@@ -4,6 +4,7 @@ import com.leaf.leafwe.commands.CommandManager;
 import com.leaf.leafwe.database.AsyncDatabaseManager;
 import com.leaf.leafwe.database.DatabaseFactory;
 import com.leaf.leafwe.database.DatabaseManager;
+import com.leaf.leafwe.database.DatabaseService;
 import com.leaf.leafwe.database.migration.MigrationManager;
 import com.leaf.leafwe.registry.ManagerRegistry;
 import com.leaf.leafwe.utils.Metrics;
@@ -102,9 +103,10 @@ public final class LeafWE extends JavaPlugin {
         CompletableFuture.runAsync(() -> {
             try {
                 DatabaseManager databaseManager = DatabaseFactory.createFromConfig(this);
-                registry.register(DatabaseManager.class, databaseManager);
+                DatabaseService databaseService = new DatabaseService(this, databaseManager);
+                registry.register(DatabaseService.class, databaseService);
 
-                databaseManager.initialize().thenCompose(success -> {
+                databaseService.initialize().thenCompose(success -> {
                     if (Boolean.TRUE.equals(success)) {
                         getLogger().info("✅ Database initialized successfully");
                         databaseEnabled = true;
@@ -116,12 +118,16 @@ public final class LeafWE extends JavaPlugin {
                     }
                 }).thenCompose(migrationSuccess -> {
                     if (Boolean.TRUE.equals(migrationSuccess) && databaseEnabled) {
-                        AsyncDatabaseManager asyncDbManager = new AsyncDatabaseManager(this, databaseManager);
+                        AsyncDatabaseManager asyncDbManager = new AsyncDatabaseManager(this,
+                                databaseService.acquire(AsyncDatabaseManager.class.getSimpleName()));
                         registry.register(AsyncDatabaseManager.class, asyncDbManager);
 
                         DailyLimitManager dailyLimitManager = new DailyLimitManager(this, ManagerRegistry.config());
                         registry.register(DailyLimitManager.class, dailyLimitManager);
 
+                        LeaderboardManager leaderboardManager = new LeaderboardManager(this);
+                        registry.register(LeaderboardManager.class, leaderboardManager);
+
                         getLogger().info("✅ Database system fully initialized");
                         return CompletableFuture.completedFuture(Boolean.TRUE);
                     } else {
@@ -315,15 +321,24 @@ public final class LeafWE extends JavaPlugin {
                     getLogger().info("✅ Async database manager shutdown");
                 }
 
+                DatabaseService databaseService = registry.get(DatabaseService.class);
+                if (databaseService != null) {
+                    databaseService.release(AsyncDatabaseManager.class.getSimpleName());
+                }
+
+                LeaderboardManager leaderboardManager = registry.get(LeaderboardManager.class);
+                if (leaderboardManager != null) {
+                    leaderboardManager.shutdown();
+                }
+
                 DailyLimitManager dailyLimitManager = registry.get(DailyLimitManager.class);
                 if (dailyLimitManager != null) {
                     dailyLimitManager.shutdown();
                     getLogger().info("✅ Daily limit manager shutdown");
                 }
 
-                DatabaseManager databaseManager = registry.get(DatabaseManager.class);
-                if (databaseManager != null) {
-                    databaseManager.shutdown().join();
+                if (databaseService != null) {
+                    databaseService.shutdown().join();
                     getLogger().info("✅ Database shutdown");
                 }
 
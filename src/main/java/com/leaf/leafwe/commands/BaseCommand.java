@@ -5,10 +5,18 @@ import com.leaf.leafwe.tasks.*;
 import com.leaf.leafwe.managers.*;
 
 import com.leaf.leafwe.LeafWE;
+import com.leaf.leafwe.registry.ManagerRegistry;
+import com.leaf.leafwe.utils.BlockRegion;
+import com.leaf.leafwe.utils.PreflightEstimator;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.util.function.Consumer;
+
 public abstract class BaseCommand {
 
     protected final LeafWE plugin;
@@ -62,4 +70,135 @@ public abstract class BaseCommand {
             sender.sendMessage("§7Permission: §f" + getPermission());
         }
     }
+
+    /**
+     * Reserves volume blocks of the player's daily limit without blocking the server thread, then continues
+     * with onReserved on the main thread (with null when no reservation is held). A denial is reported to the
+     * player here; so is a task started by another command while the reservation was in flight.
+     */
+    protected void reserveDailyLimit(Player player, long volume, Consumer<DailyLimitManager.Reservation> onReserved) {
+        DailyLimitManager dailyLimitManager = ManagerRegistry.dailyLimit();
+        if (dailyLimitManager == null) {
+            onReserved.accept(null);
+            return;
+        }
+
+        dailyLimitManager.reserve(player, (int) volume).whenComplete((limitResult, throwable) ->
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (throwable != null) {
+                        plugin.getLogger().warning("Daily limit check failed for " + player.getName() + ": " + throwable.getMessage());
+                        player.sendMessage(Component.text("§cError while checking the daily limit: " + throwable.getMessage()));
+                        return;
+                    }
+
+                    DailyLimitManager.Reservation reservation = limitResult.reservation;
+                    if (!player.isOnline()) {
+                        dailyLimitManager.release(reservation);
+                        return;
+                    }
+
+                    if (ManagerRegistry.task().hasActiveTask(player)) {
+                        dailyLimitManager.release(reservation);
+                        player.sendMessage(ManagerRegistry.config().getMessage("task-already-running"));
+                        return;
+                    }
+
+                    if (!limitResult.canPerform) {
+                        sendDailyLimitDenied(player, limitResult);
+                        return;
+                    }
+
+                    onReserved.accept(reservation);
+                }));
+    }
+
+    private void sendDailyLimitDenied(Player player, DailyLimitManager.LimitCheckResult limitResult) {
+        DailyLimitManager.DailyUsageInfo usageInfo = limitResult.usage;
+        if (usageInfo == null) {
+            return;
+        }
+
+        if (limitResult.limitType == DailyLimitManager.LimitType.BLOCKS) {
+            player.sendMessage(ManagerRegistry.config().getDailyLimitBlocksExceeded()
+                    .replaceText(config -> config.matchLiteral("%used%").replacement(String.valueOf(usageInfo.usedBlocks)))
+                    .replaceText(config -> config.matchLiteral("%max%").replacement(String.valueOf(usageInfo.maxBlocks)))
+                    .replaceText(config -> config.matchLiteral("%group%").replacement(usageInfo.group)));
+        } else if (limitResult.limitType == DailyLimitManager.LimitType.OPERATIONS) {
+            player.sendMessage(ManagerRegistry.config().getDailyLimitOperationsExceeded()
+                    .replaceText(config -> config.matchLiteral("%used%").replacement(String.valueOf(usageInfo.usedOperations)))
+                    .replaceText(config -> config.matchLiteral("%max%").replacement(String.valueOf(usageInfo.maxOperations)))
+                    .replaceText(config -> config.matchLiteral("%group%").replacement(usageInfo.group)));
+        }
+    }
+
+    /**
+     * Runs a pre-flight estimate for a job over the confirmation limit, then parks it for /lwe confirm together
+     * with the estimate, or turns it down if the estimate shows it cannot do anything useful. onDiscard runs
+     * whenever the job does not end up parked.
+     */
+    protected void requestConfirmation(Player player, long volume, BlockRegion region, PreflightEstimator.Mode mode,
+                                       Material from, Material to, Runnable executionTask, Runnable onDiscard) {
+        if (!ManagerRegistry.config().isPreflightEnabled()) {
+            parkForConfirmation(player, volume, null, executionTask, onDiscard);
+            return;
+        }
+
+        PreflightEstimator.estimate(plugin, player, region, mode, from, to).whenComplete((estimate, throwable) ->
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (!player.isOnline()) {
+                        onDiscard.run();
+                        return;
+                    }
+
+                    if (throwable != null) {
+                        plugin.getLogger().warning("Pre-flight estimate failed: " + throwable.getMessage());
+                        parkForConfirmation(player, volume, null, executionTask, onDiscard);
+                        return;
+                    }
+
+                    if (rejectByEstimate(player, estimate)) {
+                        onDiscard.run();
+                        return;
+                    }
+
+                    parkForConfirmation(player, volume, estimate, executionTask, onDiscard);
+                }));
+    }
+
+    /**
+     * Sends the rejection message and returns true if the estimate rules the job out.
+     */
+    protected boolean rejectByEstimate(Player player, PreflightEstimator.Estimate estimate) {
+        String rejection = estimate.getRejectionKey(ManagerRegistry.config().getPreflightMinItemCoverage());
+        if (rejection == null) {
+            return false;
+        }
+
+        player.sendMessage(ManagerRegistry.config().getMessage(rejection)
+                .replaceText(config -> config.matchLiteral("%items%").replacement(String.valueOf(estimate.getItemsRequired())))
+                .replaceText(config -> config.matchLiteral("%available%").replacement(String.valueOf(estimate.itemsAvailable))));
+        return true;
+    }
+
+    protected void parkForConfirmation(Player player, long volume, PreflightEstimator.Estimate estimate,
+                                       Runnable executionTask, Runnable onDiscard) {
+        if (ManagerRegistry.pending().hasPending(player)) {
+            onDiscard.run();
+            player.sendMessage(ManagerRegistry.config().getMessage("confirmation-pending"));
+            return;
+        }
+
+        ManagerRegistry.pending().setPending(player, executionTask, onDiscard);
+        player.sendMessage(ManagerRegistry.config().getMessage("confirmation-required")
+                .replaceText(config -> config.matchLiteral("%total%").replacement(String.valueOf(volume))));
+
+        if (estimate != null && estimate.isKnown()) {
+            player.sendMessage(ManagerRegistry.config().getMessage("preflight-summary")
+                    .replaceText(config -> config.matchLiteral("%changes%").replacement(String.valueOf(estimate.estimatedChanges)))
+                    .replaceText(config -> config.matchLiteral("%items%").replacement(String.valueOf(estimate.getItemsRequired())))
+                    .replaceText(config -> config.matchLiteral("%available%").replacement(String.valueOf(estimate.itemsAvailable)))
+                    .replaceText(config -> config.matchLiteral("%seconds%").replacement(String.valueOf(estimate.estimatedSeconds)))
+                    .replaceText(config -> config.matchLiteral("%protected%").replacement(String.valueOf(estimate.estimatedProtected))));
+        }
+    }
 }
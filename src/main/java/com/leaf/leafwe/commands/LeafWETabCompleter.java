@@ -67,8 +67,22 @@ public class LeafWETabCompleter implements TabCompleter {
 
     private List<String> handleLWECommand(String[] args, Player player) {
         if (args.length == 1) {
-            List<String> subCommands = Arrays.asList("reload", "give", "undo", "confirm", "limits", "help");
+            List<String> subCommands = new ArrayList<>(Arrays.asList("reload", "give", "undo", "redo", "confirm", "limits", "top", "help"));
+            if (player.hasPermission("leafwe.admin.export")) {
+                subCommands.add("export");
+            }
+            if (player.hasPermission("leafwe.admin.backup")) {
+                subCommands.add("backup");
+            }
             return filterSuggestions(subCommands, args[0]);
+        } else if (args.length >= 2 && args.length <= 4 && "export".equalsIgnoreCase(args[0])
+                && player.hasPermission("leafwe.admin.export")) {
+            List<String> options = args.length == 2 ? Arrays.asList("usage", "stats")
+                    : args.length == 3 ? Arrays.asList("today", "7d", "30d", "all")
+                    : Arrays.asList("csv", "ndjson");
+            return filterSuggestions(options, args[args.length - 1]);
+        } else if (args.length == 2 && "top".equalsIgnoreCase(args[0])) {
+            return filterSuggestions(Arrays.asList("blocks", "operations"), args[1]);
         } else if (args.length == 2 && "give".equalsIgnoreCase(args[0])) {
             return filterSuggestions(
                     player.getServer().getOnlinePlayers().stream()
@@ -1,6 +1,11 @@
 package com.leaf.leafwe.commands.impl;
 
 import com.leaf.leafwe.LeafWE;
+import com.leaf.leafwe.database.AdaptiveConcurrencyLimiter;
+import com.leaf.leafwe.database.AsyncDatabaseManager;
+import com.leaf.leafwe.database.DataExporter;
+import com.leaf.leafwe.database.DatabaseBackup;
+import com.leaf.leafwe.database.SlowQueryAnalyzer;
 import com.leaf.leafwe.managers.*;
 import com.leaf.leafwe.registry.ManagerRegistry;
 import net.kyori.adventure.text.Component;
@@ -15,6 +20,8 @@ import org.bukkit.inventory.meta.ItemMeta;
 
 public class LWECommandImpl implements CommandExecutor {
     private final LeafWE plugin;
+    private DataExporter exporter;
+    private DatabaseBackup backup;
 
     public LWECommandImpl(LeafWE plugin) {
         this.plugin = plugin;
@@ -35,15 +42,23 @@ public class LWECommandImpl implements CommandExecutor {
             case "give":
                 return handleGive(sender, args);
             case "undo":
-                return handleUndo(sender);
+                return handleUndo(sender, false);
+            case "redo":
+                return handleUndo(sender, true);
             case "confirm":
                 return handleConfirm(sender);
             case "limits":
                 return handleLimits(sender);
             case "status":
                 return handleStatus(sender);
+            case "top":
+                return handleTop(sender, args);
             case "migration":
                 return handleMigration(sender, args);
+            case "export":
+                return handleExport(sender, args);
+            case "backup":
+                return handleBackup(sender);
             case "debug":
                 return handleDebug(sender);
             case "help":
@@ -111,7 +126,7 @@ public class LWECommandImpl implements CommandExecutor {
         return true;
     }
 
-    private boolean handleUndo(CommandSender sender) {
+    private boolean handleUndo(CommandSender sender, boolean redo) {
         if (!(sender instanceof Player player)) {
             sender.sendMessage(ManagerRegistry.config().getMessage("players-only"));
             return true;
@@ -129,8 +144,23 @@ public class LWECommandImpl implements CommandExecutor {
             ProgressBarManager.showCancellation(player, "Operation cancelled for undo");
         }
 
-        if (!ManagerRegistry.undo().undoLastChange(player)) {
-            player.sendMessage(ManagerRegistry.config().getMessage("no-undo"));
+        UndoManager.ReplayResult result = redo
+                ? ManagerRegistry.undo().redoLastChange(player)
+                : ManagerRegistry.undo().undoLastChange(player);
+
+        switch (result) {
+            case BUSY:
+                player.sendMessage(ManagerRegistry.config().getMessage("undo-in-progress"));
+                break;
+            case WORLD_MISSING:
+                player.sendMessage(ManagerRegistry.config().getMessage("undo-world-missing"));
+                break;
+            case EMPTY:
+            case FAILED:
+                player.sendMessage(ManagerRegistry.config().getMessage(redo ? "no-redo" : "no-undo"));
+                break;
+            default:
+                break;
         }
         return true;
     }
@@ -194,6 +224,48 @@ public class LWECommandImpl implements CommandExecutor {
         return true;
     }
 
+    private boolean handleTop(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("leafwe.top")) {
+            sender.sendMessage(ManagerRegistry.config().getMessage("no-permission"));
+            return true;
+        }
+
+        LeaderboardManager leaderboardManager = ManagerRegistry.leaderboard();
+        if (leaderboardManager == null) {
+            sender.sendMessage(ManagerRegistry.config().getMessage("leaderboard-unavailable"));
+            return true;
+        }
+
+        LeaderboardManager.Category category = args.length >= 2
+                ? LeaderboardManager.Category.fromString(args[1])
+                : LeaderboardManager.Category.BLOCKS;
+        if (category == null) {
+            sender.sendMessage(ManagerRegistry.config().getMessage("leaderboard-usage"));
+            return true;
+        }
+
+        String categoryName = category.name().toLowerCase();
+        sender.sendMessage(ManagerRegistry.config().getMessage("leaderboard-header")
+                .replaceText(config -> config.matchLiteral("%category%").replacement(
+                        ManagerRegistry.config().getMessage("leaderboard-category-" + categoryName))));
+
+        var entries = leaderboardManager.getTop(category);
+        if (entries.isEmpty()) {
+            sender.sendMessage(ManagerRegistry.config().getMessage("leaderboard-empty"));
+            return true;
+        }
+
+        for (int i = 0; i < entries.size(); i++) {
+            LeaderboardManager.LeaderboardEntry entry = entries.get(i);
+            String rank = String.valueOf(i + 1);
+            sender.sendMessage(ManagerRegistry.config().getMessage("leaderboard-entry")
+                    .replaceText(config -> config.matchLiteral("%rank%").replacement(rank))
+                    .replaceText(config -> config.matchLiteral("%player%").replacement(entry.playerName))
+                    .replaceText(config -> config.matchLiteral("%value%").replacement(String.format("%,d", entry.value))));
+        }
+        return true;
+    }
+
     private boolean handleStatus(CommandSender sender) {
         if (!sender.hasPermission("leafwe.admin.status")) {
             sender.sendMessage(ManagerRegistry.config().getMessage("no-permission"));
@@ -220,6 +292,29 @@ public class LWECommandImpl implements CommandExecutor {
 
         if (dbHealthy && ManagerRegistry.database() != null) {
             sender.sendMessage(Component.text("Database Type: " + ManagerRegistry.database().getDatabaseType(), NamedTextColor.GRAY));
+            ManagerRegistry.database().getDatabaseStats().thenAccept(stats ->
+                    sender.sendMessage(Component.text("Database Records: " + stats.totalRecords +
+                            " (usage: " + stats.dailyUsageRecords + ", stats: " + stats.playerStatsRecords +
+                            ", sessions: " + stats.sessionRecords + ")", NamedTextColor.GRAY)));
+
+            AsyncDatabaseManager asyncDatabase = ManagerRegistry.asyncDatabase();
+            String poolSummary = asyncDatabase != null ? asyncDatabase.getMonitor().getPoolSummary() : null;
+            if (poolSummary != null) {
+                sender.sendMessage(Component.text("Connection Pool: " + poolSummary, NamedTextColor.GRAY));
+            }
+
+            if (asyncDatabase != null) {
+                AdaptiveConcurrencyLimiter limiter = asyncDatabase.getLimiter();
+                sender.sendMessage(Component.text("DB Concurrency: " + limiter.getInFlight() + "/" + limiter.getLimit() +
+                        " in flight, " + limiter.getQueued() + " queued, " + limiter.getShedCount() + " shed", NamedTextColor.GRAY));
+            }
+
+            String maintenanceSummary = asyncDatabase != null ? asyncDatabase.getMonitor().getMaintenanceSummary() : null;
+            if (maintenanceSummary != null) {
+                sender.sendMessage(Component.text("Maintenance: " + maintenanceSummary, NamedTextColor.GRAY));
+            }
+
+            showSlowQueries(sender, ManagerRegistry.database().getSlowQueryAnalyzer());
         }
 
         TaskManager taskManager = ManagerRegistry.task();
@@ -227,9 +322,41 @@ public class LWECommandImpl implements CommandExecutor {
             sender.sendMessage(Component.text("Active Tasks: " + taskManager.getActiveTaskCount(), NamedTextColor.GRAY));
         }
 
+        if (registry.has(UndoManager.class)) {
+            UndoManager undoManager = ManagerRegistry.undo();
+            long budget = ManagerRegistry.config().getUndoMemoryBudgetBytes();
+            sender.sendMessage(Component.text("Undo Memory: " + (undoManager.getMemoryUsage() / 1024 / 1024) + " MB" +
+                    (budget > 0 ? " / " + (budget / 1024 / 1024) + " MB" : "") + " (" + undoManager.getEntryCount() +
+                    " entries, " + undoManager.getEvictedCount() + " evicted)", NamedTextColor.GRAY));
+        }
+
         return true;
     }
 
+    private void showSlowQueries(CommandSender sender, SlowQueryAnalyzer analyzer) {
+        if (analyzer == null) {
+            return;
+        }
+
+        java.util.List<SlowQueryAnalyzer.SlowQuery> recent = analyzer.getRecent();
+        if (recent.isEmpty()) {
+            return;
+        }
+
+        sender.sendMessage(Component.text("Recent Slow Queries (" + recent.size() + "):", NamedTextColor.YELLOW));
+        long now = System.currentTimeMillis();
+        for (SlowQueryAnalyzer.SlowQuery query : recent.subList(0, Math.min(3, recent.size()))) {
+            sender.sendMessage(Component.text("  " + query.queryType + " - " + query.durationMillis + "ms, " +
+                    ((now - query.timestamp) / 60000) + "m ago", NamedTextColor.GOLD));
+            sender.sendMessage(Component.text("    " + query.sql + " " + query.params, NamedTextColor.GRAY));
+            if (query.plan != null) {
+                for (String step : query.plan) {
+                    sender.sendMessage(Component.text("    > " + step, NamedTextColor.DARK_GRAY));
+                }
+            }
+        }
+    }
+
     private boolean handleMigration(CommandSender sender, String[] args) {
         if (!sender.hasPermission("leafwe.admin.migration")) {
             sender.sendMessage(ManagerRegistry.config().getMessage("no-permission"));
@@ -246,6 +373,82 @@ public class LWECommandImpl implements CommandExecutor {
         return true;
     }
 
+    private boolean handleExport(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("leafwe.admin.export")) {
+            sender.sendMessage(ManagerRegistry.config().getMessage("no-permission"));
+            return true;
+        }
+
+        if (args.length < 3) {
+            sender.sendMessage(Component.text("Usage: /lwe export <usage|stats> <today|7d|all|yyyy-MM-dd..yyyy-MM-dd> [csv|ndjson]", NamedTextColor.RED));
+            return true;
+        }
+
+        if (ManagerRegistry.database() == null) {
+            sender.sendMessage(Component.text("Database is not available.", NamedTextColor.RED));
+            return true;
+        }
+
+        DataExporter.Dataset dataset;
+        switch (args[1].toLowerCase()) {
+            case "usage":
+                dataset = DataExporter.Dataset.USAGE;
+                break;
+            case "stats":
+                dataset = DataExporter.Dataset.STATS;
+                break;
+            default:
+                sender.sendMessage(Component.text("Unknown dataset: " + args[1] + " (usage, stats)", NamedTextColor.RED));
+                return true;
+        }
+
+        DataExporter.ExportRange range = DataExporter.ExportRange.parse(args[2]);
+        if (range == null) {
+            sender.sendMessage(Component.text("Invalid range: " + args[2], NamedTextColor.RED));
+            return true;
+        }
+
+        DataExporter.Format format = DataExporter.Format.CSV;
+        if (args.length > 3) {
+            if (args[3].equalsIgnoreCase("ndjson")) {
+                format = DataExporter.Format.NDJSON;
+            } else if (!args[3].equalsIgnoreCase("csv")) {
+                sender.sendMessage(Component.text("Unknown format: " + args[3] + " (csv, ndjson)", NamedTextColor.RED));
+                return true;
+            }
+        }
+
+        if (exporter == null) {
+            exporter = new DataExporter(plugin, ManagerRegistry.database());
+        }
+
+        if (!exporter.export(sender, dataset, range, format)) {
+            sender.sendMessage(Component.text("An export is already running.", NamedTextColor.YELLOW));
+        }
+        return true;
+    }
+
+    private boolean handleBackup(CommandSender sender) {
+        if (!sender.hasPermission("leafwe.admin.backup")) {
+            sender.sendMessage(ManagerRegistry.config().getMessage("no-permission"));
+            return true;
+        }
+
+        if (ManagerRegistry.database() == null) {
+            sender.sendMessage(Component.text("Database is not available.", NamedTextColor.RED));
+            return true;
+        }
+
+        if (backup == null) {
+            backup = new DatabaseBackup(plugin, ManagerRegistry.database());
+        }
+
+        if (!backup.backup(sender)) {
+            sender.sendMessage(Component.text("A backup is already running.", NamedTextColor.YELLOW));
+        }
+        return true;
+    }
+
     private boolean handleDebug(CommandSender sender) {
         if (!sender.hasPermission("leafwe.admin.debug")) {
             sender.sendMessage(ManagerRegistry.config().getMessage("no-permission"));
@@ -268,10 +471,14 @@ public class LWECommandImpl implements CommandExecutor {
                 .append(Component.text(" - Give construction wand", NamedTextColor.GRAY)));
         sender.sendMessage(Component.text("/lwe undo", NamedTextColor.AQUA)
                 .append(Component.text(" - Undo last operation", NamedTextColor.GRAY)));
+        sender.sendMessage(Component.text("/lwe redo", NamedTextColor.AQUA)
+                .append(Component.text(" - Redo last undone operation", NamedTextColor.GRAY)));
         sender.sendMessage(Component.text("/lwe confirm", NamedTextColor.AQUA)
                 .append(Component.text(" - Confirm pending operation", NamedTextColor.GRAY)));
         sender.sendMessage(Component.text("/lwe limits", NamedTextColor.AQUA)
                 .append(Component.text(" - Show daily usage limits", NamedTextColor.GRAY)));
+        sender.sendMessage(Component.text("/lwe top [blocks|operations]", NamedTextColor.AQUA)
+                .append(Component.text(" - Show top builders", NamedTextColor.GRAY)));
 
         if (sender.hasPermission("leafwe.admin")) {
             sender.sendMessage(Component.text("", NamedTextColor.WHITE));
@@ -282,6 +489,10 @@ public class LWECommandImpl implements CommandExecutor {
                     .append(Component.text(" - Show system status", NamedTextColor.GRAY)));
             sender.sendMessage(Component.text("/lwe migration <cmd>", NamedTextColor.AQUA)
                     .append(Component.text(" - Database migration commands", NamedTextColor.GRAY)));
+            sender.sendMessage(Component.text("/lwe export <usage|stats> <range> [csv|ndjson]", NamedTextColor.AQUA)
+                    .append(Component.text(" - Export data to a gzip file", NamedTextColor.GRAY)));
+            sender.sendMessage(Component.text("/lwe backup", NamedTextColor.AQUA)
+                    .append(Component.text(" - Snapshot the database to backups/", NamedTextColor.GRAY)));
             sender.sendMessage(Component.text("/lwe debug", NamedTextColor.AQUA)
                     .append(Component.text(" - Show debug information", NamedTextColor.GRAY)));
         }
@@ -5,22 +5,24 @@ import com.leaf.leafwe.commands.BaseCommand;
 import com.leaf.leafwe.managers.*;
 import com.leaf.leafwe.tasks.ReplaceTask;
 import com.leaf.leafwe.registry.ManagerRegistry;
+import com.leaf.leafwe.utils.BlockPositions;
+import com.leaf.leafwe.utils.BlockRegion;
+import com.leaf.leafwe.utils.PreflightEstimator;
 import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 public class ReplaceCommandImpl extends BaseCommand {
 
+    // A sampled estimate this many times over max-volume is rejected without counting the matches for real
+    private static final int ESTIMATE_REJECT_FACTOR = 2;
+
     public ReplaceCommandImpl(LeafWE plugin) {
         super(plugin);
     }
@@ -125,103 +127,194 @@ public class ReplaceCommandImpl extends BaseCommand {
             return true;
         }
 
-        List<Location> locationsToFill = new ArrayList<>();
-        Map<Location, org.bukkit.block.BlockState> undoData = new HashMap<>();
+        // Only the bounds and materials wait for confirmation, the matching positions are collected when the job starts
+        final BlockRegion region = BlockRegion.of(pos1, pos2);
+        final Material finalFromBlock = fromBlock;
+        final Material finalToBlock = toBlock;
 
-        try {
-            World world = pos1.getWorld();
-            int minX = Math.min(pos1.getBlockX(), pos2.getBlockX());
-            int minY = Math.min(pos1.getBlockY(), pos2.getBlockY());
-            int minZ = Math.min(pos1.getBlockZ(), pos2.getBlockZ());
-            int maxX = Math.max(pos1.getBlockX(), pos2.getBlockX());
-            int maxY = Math.max(pos1.getBlockY(), pos2.getBlockY());
-            int maxZ = Math.max(pos1.getBlockZ(), pos2.getBlockZ());
-
-            for (int x = minX; x <= maxX; x++) {
-                for (int y = minY; y <= maxY; y++) {
-                    for (int z = minZ; z <= maxZ; z++) {
-                        Location loc = new Location(world, x, y, z);
-                        Block block = loc.getBlock();
-                        if (block.getType() == fromBlock) {
-                            locationsToFill.add(loc);
-                            undoData.put(loc, block.getState());
-                        }
-                    }
-                }
+        // Large selections are estimated from sampled chunks instead of being scanned here
+        int confirmationLimit = ManagerRegistry.config().getConfirmationLimit();
+        if (confirmationLimit > 0 && region.getVolume() > confirmationLimit && ManagerRegistry.config().isPreflightEnabled()) {
+            if (ManagerRegistry.pending().hasPending(player)) {
+                player.sendMessage(ManagerRegistry.config().getMessage("confirmation-pending"));
+                return true;
             }
-        } catch (Exception e) {
-            player.sendMessage(Component.text("§cError while calculating replace locations: " + e.getMessage()));
+
+            PreflightEstimator.estimate(plugin, player, region, PreflightEstimator.Mode.REPLACE, finalFromBlock, finalToBlock)
+                    .whenComplete((estimate, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+                        if (!player.isOnline()) return;
+
+                        if (throwable != null) {
+                            plugin.getLogger().warning("Pre-flight estimate failed: " + throwable.getMessage());
+                        }
+
+                        // No usable sample (or a sampled zero that may be wrong): count for real
+                        if (throwable != null || !estimate.isKnown() || (!estimate.exact && estimate.estimatedChanges == 0)) {
+                            long count = countMatches(player, region, finalFromBlock);
+                            if (count >= 0) {
+                                startReplace(player, region, finalFromBlock, finalToBlock, count);
+                            }
+                            return;
+                        }
+
+                        if (rejectByEstimate(player, estimate)) return;
+
+                        // Infeasible by max-volume already: no need to scan the selection on confirm
+                        if (!player.hasPermission("leafwe.bypass.limit") && (estimate.exact
+                                ? estimate.estimatedChanges > maxVolume()
+                                : estimate.estimatedChanges > maxVolume() * ESTIMATE_REJECT_FACTOR)) {
+                            sendVolumeLimitExceeded(player);
+                            return;
+                        }
+
+                        // The estimate only drives the prompt; max-volume and the daily limit are checked against
+                        // the real matches once the job is confirmed
+                        Runnable executionTask = () -> replaceMatches(player, region, finalFromBlock, finalToBlock, 0, null);
+                        if (estimate.estimatedChanges > confirmationLimit) {
+                            parkForConfirmation(player, estimate.estimatedChanges, estimate, executionTask, () -> { });
+                        } else {
+                            executionTask.run();
+                        }
+                    }));
             return true;
         }
 
-        if (locationsToFill.isEmpty()) {
-            player.sendMessage(Component.text("§cNo blocks found to replace."));
-            return true;
+        long count = countMatches(player, region, finalFromBlock);
+        if (count >= 0) {
+            startReplace(player, region, finalFromBlock, finalToBlock, count);
         }
+        return true;
+    }
 
-        long volume = locationsToFill.size();
-
-        if (ManagerRegistry.dailyLimit() != null) {
-            var limitResult = ManagerRegistry.dailyLimit().canPerformOperationDetailed(player, (int) volume);
-
-            if (!limitResult.canPerform) {
-                var usageInfo = ManagerRegistry.dailyLimit().getUsageInfo(player);
-                if (limitResult.limitType == DailyLimitManager.LimitType.BLOCKS) {
-                    player.sendMessage(ManagerRegistry.config().getDailyLimitBlocksExceeded()
-                            .replaceText(config -> config.matchLiteral("%used%").replacement(String.valueOf(usageInfo.usedBlocks)))
-                            .replaceText(config -> config.matchLiteral("%max%").replacement(String.valueOf(usageInfo.maxBlocks)))
-                            .replaceText(config -> config.matchLiteral("%group%").replacement(usageInfo.group)));
-                } else {
-                    player.sendMessage(ManagerRegistry.config().getDailyLimitOperationsExceeded()
-                            .replaceText(config -> config.matchLiteral("%used%").replacement(String.valueOf(usageInfo.usedOperations)))
-                            .replaceText(config -> config.matchLiteral("%max%").replacement(String.valueOf(usageInfo.maxOperations)))
-                            .replaceText(config -> config.matchLiteral("%group%").replacement(usageInfo.group)));
-                }
-                return true;
-            }
+    private long countMatches(Player player, BlockRegion region, Material fromBlock) {
+        try {
+            return region.count(fromBlock, scanLimit(player));
+        } catch (Exception e) {
+            player.sendMessage(Component.text("§cError while calculating replace locations: " + e.getMessage()));
+            return -1;
+        }
+    }
+
+    /**
+     * Limit checks, reservation and start/confirmation for a replace of volume counted matches.
+     */
+    private void startReplace(Player player, BlockRegion region, Material fromBlock, Material toBlock, long volume) {
+        if (volume == 0) {
+            player.sendMessage(Component.text("§cNo blocks found to replace."));
+            return;
         }
 
         if (!player.hasPermission("leafwe.bypass.limit") && volume > ManagerRegistry.config().getMaxVolume()) {
-            player.sendMessage(ManagerRegistry.config().getMessage("volume-limit-exceeded")
-                    .replaceText(config -> config.matchLiteral("%limit%").replacement(String.valueOf(ManagerRegistry.config().getMaxVolume()))));
-            return true;
+            sendVolumeLimitExceeded(player);
+            return;
         }
 
-        final Material finalToBlock = toBlock;
+        // Reserved after the other checks, so a rejected command never holds part of the daily limit
+        reserveDailyLimit(player, volume, reservation -> runOrConfirm(player, region, fromBlock, toBlock, volume, reservation));
+    }
 
-        Runnable executionTask = () -> {
-            try {
-                ManagerRegistry.undo().addHistory(player, undoData);
-                player.sendMessage(ManagerRegistry.config().getMessage("process-starting"));
-
-                ReplaceTask task = new ReplaceTask(
-                        player, locationsToFill, finalToBlock,
-                        ManagerRegistry.config(), ManagerRegistry.visualizer(),
-                        ManagerRegistry.task(), ManagerRegistry.blockstate(),
-                        ManagerRegistry.protection()
-                );
-                task.runTaskTimer(plugin, 2L, ManagerRegistry.config().getSpeed());
-                ManagerRegistry.task().startTask(player, task);
-            } catch (Exception e) {
-                player.sendMessage(Component.text("§cError starting replace task: " + e.getMessage()));
-            }
-        };
+    private void runOrConfirm(Player player, BlockRegion region, Material fromBlock, Material toBlock, long volume,
+                              DailyLimitManager.Reservation reservation) {
+        Runnable executionTask = () -> replaceMatches(player, region, fromBlock, toBlock, volume, reservation);
 
         int confirmationLimit = ManagerRegistry.config().getConfirmationLimit();
         if (confirmationLimit > 0 && volume > confirmationLimit) {
             if (ManagerRegistry.pending().hasPending(player)) {
+                releaseReservation(reservation);
                 player.sendMessage(ManagerRegistry.config().getMessage("confirmation-pending"));
-                return true;
+            } else {
+                requestConfirmation(player, volume, region, PreflightEstimator.Mode.REPLACE, fromBlock, toBlock,
+                        executionTask, () -> releaseReservation(reservation));
             }
-
-            ManagerRegistry.pending().setPending(player, executionTask);
-            player.sendMessage(ManagerRegistry.config().getMessage("confirmation-required")
-                    .replaceText(config -> config.matchLiteral("%total%").replacement(String.valueOf(volume))));
         } else {
             executionTask.run();
         }
+    }
 
-        return true;
+    /**
+     * Collects the matching positions and starts the task. ReplaceTask places every match, so when there are more
+     * than checkedVolume (0 if nothing was checked, or the world changed during the confirmation wait) max-volume
+     * and the daily limit are checked again against the real count.
+     */
+    private void replaceMatches(Player player, BlockRegion region, Material fromBlock, Material toBlock,
+                                long checkedVolume, DailyLimitManager.Reservation reservation) {
+        BlockPositions locationsToFill;
+        try {
+            locationsToFill = region.positionsOf(fromBlock, scanLimit(player));
+        } catch (Exception e) {
+            releaseReservation(reservation);
+            player.sendMessage(Component.text("§cError while calculating replace locations: " + e.getMessage()));
+            return;
+        }
+
+        if (locationsToFill.isEmpty()) {
+            releaseReservation(reservation);
+            player.sendMessage(Component.text("§cNo blocks found to replace."));
+            return;
+        }
+
+        if (locationsToFill.size() > checkedVolume) {
+            releaseReservation(reservation);
+            recheckAndStart(player, locationsToFill, toBlock);
+            return;
+        }
+
+        startTask(player, locationsToFill, toBlock, reservation);
+    }
+
+    private void recheckAndStart(Player player, BlockPositions locationsToFill, Material toBlock) {
+        int count = locationsToFill.size();
+        if (!player.hasPermission("leafwe.bypass.limit") && count > ManagerRegistry.config().getMaxVolume()) {
+            sendVolumeLimitExceeded(player);
+            return;
+        }
+
+        reserveDailyLimit(player, count, reservation -> startTask(player, locationsToFill, toBlock, reservation));
+    }
+
+    private void startTask(Player player, BlockPositions locationsToFill, Material toBlock,
+                           DailyLimitManager.Reservation reservation) {
+        try {
+            player.sendMessage(ManagerRegistry.config().getMessage("process-starting"));
+
+            ReplaceTask task = new ReplaceTask(
+                    player, locationsToFill, toBlock,
+                    ManagerRegistry.config(), ManagerRegistry.visualizer(),
+                    ManagerRegistry.task(), ManagerRegistry.blockstate(),
+                    ManagerRegistry.protection()
+            );
+            task.setLimitReservation(reservation);
+            task.runTaskTimer(plugin, 2L, ManagerRegistry.config().getSpeed());
+            ManagerRegistry.task().startTask(player, task);
+        } catch (Exception e) {
+            releaseReservation(reservation);
+            player.sendMessage(Component.text("§cError starting replace task: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * One match past max-volume is enough to reject the job, so scans stop there unless the player bypasses it.
+     */
+    private int scanLimit(Player player) {
+        if (player.hasPermission("leafwe.bypass.limit")) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, maxVolume() + 1L);
+    }
+
+    private long maxVolume() {
+        return ManagerRegistry.config().getMaxVolume();
+    }
+
+    private void sendVolumeLimitExceeded(Player player) {
+        player.sendMessage(ManagerRegistry.config().getMessage("volume-limit-exceeded")
+                .replaceText(config -> config.matchLiteral("%limit%").replacement(String.valueOf(ManagerRegistry.config().getMaxVolume()))));
+    }
+
+    private void releaseReservation(DailyLimitManager.Reservation reservation) {
+        if (reservation != null && ManagerRegistry.dailyLimit() != null) {
+            ManagerRegistry.dailyLimit().release(reservation);
+        }
     }
 
     private boolean checkAreaPermissions(Player player, Location pos1, Location pos2) {
@@ -5,6 +5,9 @@ import com.leaf.leafwe.commands.BaseCommand;
 import com.leaf.leafwe.managers.DailyLimitManager;
 import com.leaf.leafwe.tasks.BlockPlacerTask;
 import com.leaf.leafwe.registry.ManagerRegistry;
+import com.leaf.leafwe.utils.BlockPositions;
+import com.leaf.leafwe.utils.BlockRegion;
+import com.leaf.leafwe.utils.PreflightEstimator;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -13,10 +16,6 @@ import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 public class SetCommandImpl extends BaseCommand {
 
@@ -98,76 +97,40 @@ public class SetCommandImpl extends BaseCommand {
 
         long volume = ManagerRegistry.selection().getVolume(player);
 
-        if (ManagerRegistry.dailyLimit() != null) {
-            var limitResult = ManagerRegistry.dailyLimit().canPerformOperationDetailed(player, (int) volume);
-
-            if (!limitResult.canPerform) {
-                var usageInfo = ManagerRegistry.dailyLimit().getUsageInfo(player);
-
-                if (limitResult.limitType == DailyLimitManager.LimitType.BLOCKS) {
-                    player.sendMessage(ManagerRegistry.config().getDailyLimitBlocksExceeded()
-                            .replaceText(config -> config.matchLiteral("%used%").replacement(String.valueOf(usageInfo.usedBlocks)))
-                            .replaceText(config -> config.matchLiteral("%max%").replacement(String.valueOf(usageInfo.maxBlocks)))
-                            .replaceText(config -> config.matchLiteral("%group%").replacement(usageInfo.group)));
-                } else if (limitResult.limitType == DailyLimitManager.LimitType.OPERATIONS) {
-                    player.sendMessage(ManagerRegistry.config().getDailyLimitOperationsExceeded()
-                            .replaceText(config -> config.matchLiteral("%used%").replacement(String.valueOf(usageInfo.usedOperations)))
-                            .replaceText(config -> config.matchLiteral("%max%").replacement(String.valueOf(usageInfo.maxOperations)))
-                            .replaceText(config -> config.matchLiteral("%group%").replacement(usageInfo.group)));
-                }
-                return true;
-            }
-        }
-
         if (!player.hasPermission("leafwe.bypass.limit") && volume > ManagerRegistry.config().getMaxVolume()) {
             player.sendMessage(ManagerRegistry.config().getMessage("volume-limit-exceeded")
                     .replaceText(config -> config.matchLiteral("%limit%").replacement(String.valueOf(ManagerRegistry.config().getMaxVolume()))));
             return true;
         }
 
-        List<Location> locationsToFill = new ArrayList<>();
-        Map<Location, org.bukkit.block.BlockState> undoData = new HashMap<>();
-
-        try {
-            World world = pos1.getWorld();
-            int minX = Math.min(pos1.getBlockX(), pos2.getBlockX());
-            int minY = Math.min(pos1.getBlockY(), pos2.getBlockY());
-            int minZ = Math.min(pos1.getBlockZ(), pos2.getBlockZ());
-            int maxX = Math.max(pos1.getBlockX(), pos2.getBlockX());
-            int maxY = Math.max(pos1.getBlockY(), pos2.getBlockY());
-            int maxZ = Math.max(pos1.getBlockZ(), pos2.getBlockZ());
-
-            for (int x = minX; x <= maxX; x++) {
-                for (int y = minY; y <= maxY; y++) {
-                    for (int z = minZ; z <= maxZ; z++) {
-                        Location loc = new Location(world, x, y, z);
-                        locationsToFill.add(loc);
-                        undoData.put(loc, loc.getBlock().getState());
-                    }
-                }
-            }
-        } catch (Exception e) {
-            player.sendMessage(Component.text("§cError while preparing locations: " + e.getMessage()));
-            return true;
-        }
-
+        // Only the bounds wait for confirmation, positions are enumerated when the job starts
+        final BlockRegion region = BlockRegion.of(pos1, pos2);
         final Material finalBlockType = blockType;
 
+        // Reserved after the other checks, so a rejected command never holds part of the daily limit
+        reserveDailyLimit(player, volume, reservation -> startSet(player, region, finalBlockType, volume, reservation));
+        return true;
+    }
+
+    private void startSet(Player player, BlockRegion region, Material blockType, long volume,
+                          DailyLimitManager.Reservation reservation) {
         Runnable executionTask = () -> {
             try {
-                ManagerRegistry.undo().addHistory(player, undoData);
-                ManagerRegistry.gui().setLastReplacedFrom(player, finalBlockType);
+                ManagerRegistry.gui().setLastReplacedFrom(player, blockType);
                 player.sendMessage(ManagerRegistry.config().getMessage("process-starting"));
 
+                BlockPositions locationsToFill = region.positions();
                 BlockPlacerTask task = new BlockPlacerTask(
-                        plugin, player, locationsToFill, finalBlockType,
+                        plugin, player, locationsToFill, blockType,
                         ManagerRegistry.config(), ManagerRegistry.visualizer(),
                         ManagerRegistry.task(), ManagerRegistry.blockstate(),
                         ManagerRegistry.protection()
                 );
+                task.setLimitReservation(reservation);
                 task.runTaskTimer(plugin, 2L, ManagerRegistry.config().getSpeed());
                 ManagerRegistry.task().startTask(player, task);
             } catch (Exception e) {
+                releaseReservation(reservation);
                 player.sendMessage(Component.text("§cError starting set task: " + e.getMessage()));
             }
         };
@@ -175,18 +138,22 @@ public class SetCommandImpl extends BaseCommand {
         int confirmationLimit = ManagerRegistry.config().getConfirmationLimit();
         if (confirmationLimit > 0 && volume > confirmationLimit) {
             if (ManagerRegistry.pending().hasPending(player)) {
+                releaseReservation(reservation);
                 player.sendMessage(ManagerRegistry.config().getMessage("confirmation-pending"));
-                return true;
+                return;
             }
 
-            ManagerRegistry.pending().setPending(player, executionTask);
-            player.sendMessage(ManagerRegistry.config().getMessage("confirmation-required")
-                    .replaceText(config -> config.matchLiteral("%total%").replacement(String.valueOf(volume))));
+            requestConfirmation(player, volume, region, PreflightEstimator.Mode.FILL, null, blockType,
+                    executionTask, () -> releaseReservation(reservation));
         } else {
             executionTask.run();
         }
+    }
 
-        return true;
+    private void releaseReservation(DailyLimitManager.Reservation reservation) {
+        if (reservation != null && ManagerRegistry.dailyLimit() != null) {
+            ManagerRegistry.dailyLimit().release(reservation);
+        }
     }
 
     private boolean checkAreaPermissions(Player player, Location pos1, Location pos2) {
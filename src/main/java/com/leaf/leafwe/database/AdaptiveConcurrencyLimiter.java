@@ -0,0 +1,218 @@
+package com.leaf.leafwe.database;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * AIMD limit on in-flight database work. The limit grows by roughly one per round of successful calls and is
+ * cut by a factor when latency rises well above the best recently observed latency (or a call fails), so it
+ * settles near what the database can actually serve. Work that does not fit waits in per-priority queues;
+ * lower priorities are admitted against a smaller share of the limit and are shed first when their queue is full.
+ * Nothing here ever runs database work itself, permits are handed out through callbacks.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority {
+        HIGH(1.0),    // player-facing reads, limit checks
+        NORMAL(0.8),  // usage flushes
+        LOW(0.5);     // stats, cleanup, maintenance
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoff;
+    private final int maxQueued;
+
+    private double limit;
+    private int inFlight = 0;
+    private long minRttNanos = Long.MAX_VALUE;
+    private int samples = 0;
+    private long lastDecreaseNanos = 0;
+    private long shed = 0;
+
+    private final Map<Priority, ArrayDeque<Pending>> queues = new EnumMap<>(Priority.class);
+
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, double tolerance, double backoff, int maxQueued) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = Math.max(1.1, tolerance);
+        this.backoff = Math.min(0.95, Math.max(0.5, backoff));
+        this.maxQueued = Math.max(1, maxQueued);
+        this.limit = Math.max(this.minLimit, this.maxLimit / 2.0);
+
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Runs onPermit as soon as a slot is free for this priority (possibly right away, on the calling thread).
+     * onPermit must only hand the work to an executor. If the priority's queue is full, onReject is called instead.
+     * Every permit must be returned through {@link #release}.
+     */
+    public void acquire(Priority priority, Runnable onPermit, Consumer<RuntimeException> onReject) {
+        boolean admitted = false;
+        boolean rejected = false;
+
+        synchronized (this) {
+            ArrayDeque<Pending> queue = queues.get(priority);
+            if (queuedAhead(priority) == 0 && inFlight < admissionLimit(priority)) {
+                inFlight++;
+                admitted = true;
+            } else if (queue.size() < queueCapacity(priority)) {
+                queue.add(new Pending(onPermit, onReject, System.nanoTime()));
+            } else {
+                shed++;
+                rejected = true;
+            }
+        }
+
+        if (admitted) {
+            onPermit.run();
+        } else if (rejected) {
+            onReject.accept(new RejectedExecutionException("Database busy, " + priority.name().toLowerCase() + " priority work shed"));
+        }
+    }
+
+    /**
+     * Returns a permit. rttNanos is the call's latency, or a negative value when no sample should be taken
+     * (the work never reached the database).
+     */
+    public void release(long rttNanos, boolean success) {
+        List<Runnable> toRun;
+
+        synchronized (this) {
+            inFlight--;
+            if (rttNanos >= 0) {
+                adjust(rttNanos, success);
+            }
+            toRun = admitQueued();
+        }
+
+        toRun.forEach(Runnable::run);
+    }
+
+    /**
+     * Rejects queued work that has waited longer than maxWaitNanos.
+     */
+    public void expire(long maxWaitNanos) {
+        List<Pending> expired = new ArrayList<>();
+        long now = System.nanoTime();
+
+        synchronized (this) {
+            for (ArrayDeque<Pending> queue : queues.values()) {
+                Iterator<Pending> it = queue.iterator();
+                while (it.hasNext()) {
+                    Pending pending = it.next();
+                    if (now - pending.enqueuedNanos > maxWaitNanos) {
+                        it.remove();
+                        expired.add(pending);
+                    }
+                }
+            }
+        }
+
+        for (Pending pending : expired) {
+            pending.onReject.accept(new RejectedExecutionException(
+                    new TimeoutException("Waited " + (maxWaitNanos / 1_000_000) + "ms for a database slot")));
+        }
+    }
+
+    private void adjust(long rttNanos, boolean success) {
+        // Forget the old minimum now and then so the baseline follows real changes in the database
+        if (++samples >= 1000) {
+            samples = 0;
+            minRttNanos = rttNanos;
+        }
+        minRttNanos = Math.min(minRttNanos, rttNanos);
+
+        long now = System.nanoTime();
+        if (!success || rttNanos > minRttNanos * tolerance) {
+            // One cut per latency window, otherwise a single slow burst collapses the limit
+            if (now - lastDecreaseNanos > Math.max(minRttNanos, 1_000_000L)) {
+                limit = Math.max(minLimit, limit * backoff);
+                lastDecreaseNanos = now;
+            }
+        } else if (inFlight + 1 >= limit * 0.8) {
+            // Only grow while the current limit is actually being used
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    private List<Runnable> admitQueued() {
+        List<Runnable> toRun = new ArrayList<>();
+        for (Priority priority : Priority.values()) {
+            ArrayDeque<Pending> queue = queues.get(priority);
+            while (!queue.isEmpty() && inFlight < admissionLimit(priority)) {
+                inFlight++;
+                toRun.add(queue.poll().onPermit);
+            }
+        }
+        return toRun;
+    }
+
+    private int queuedAhead(Priority priority) {
+        int count = 0;
+        for (Priority other : Priority.values()) {
+            if (other.ordinal() > priority.ordinal()) {
+                break;
+            }
+            count += queues.get(other).size();
+        }
+        return count;
+    }
+
+    private int admissionLimit(Priority priority) {
+        return Math.max(1, (int) (limit * priority.share));
+    }
+
+    private int queueCapacity(Priority priority) {
+        return priority == Priority.LOW ? Math.max(1, maxQueued / 4) : maxQueued;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        int count = 0;
+        for (ArrayDeque<Pending> queue : queues.values()) {
+            count += queue.size();
+        }
+        return count;
+    }
+
+    public synchronized long getShedCount() {
+        return shed;
+    }
+
+    private static class Pending {
+        final Runnable onPermit;
+        final Consumer<RuntimeException> onReject;
+        final long enqueuedNanos;
+
+        Pending(Runnable onPermit, Consumer<RuntimeException> onReject, long enqueuedNanos) {
+            this.onPermit = onPermit;
+            this.onReject = onReject;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
@@ -13,12 +13,13 @@ public class AsyncDatabaseManager {
     private final LeafWE plugin;
     private final DatabaseManager databaseManager;
     private final DatabaseMonitor monitor;
+    private final MaintenanceScheduler maintenanceScheduler;
 
     private final ExecutorService readExecutor;
     private final ExecutorService writeExecutor;
     private final ExecutorService maintenanceExecutor;
 
-    private final Semaphore connectionSemaphore;
+    private final AdaptiveConcurrencyLimiter limiter;
     private final Map<String, CompletableFuture<?>> activeOperations;
     private final AtomicLong operationCounter;
 
@@ -34,6 +35,11 @@ public class AsyncDatabaseManager {
         this.monitor = new DatabaseMonitor(plugin, databaseManager);
 
         int maxConnections = plugin.getConfig().getInt("database.async.max-connections", 20);
+        // Pool is sized once by the shared DatabaseManager; more permits than pool slots would only queue inside Hikari
+        DatabaseManager.ConnectionPoolStats poolStats = databaseManager.getConnectionPoolStats();
+        if (poolStats != null && poolStats.maximumPoolSize > 0) {
+            maxConnections = Math.min(maxConnections, poolStats.maximumPoolSize);
+        }
         int readThreads = plugin.getConfig().getInt("database.async.read-threads", 4);
         int writeThreads = plugin.getConfig().getInt("database.async.write-threads", 2);
         this.CIRCUIT_BREAKER_THRESHOLD = plugin.getConfig().getLong("database.async.circuit-breaker-threshold", 10);
@@ -44,109 +50,157 @@ public class AsyncDatabaseManager {
         this.maintenanceExecutor = Executors.newScheduledThreadPool(1,
                 r -> new Thread(r, "LeafWE-DB-Maintenance"));
 
-        this.connectionSemaphore = new Semaphore(maxConnections);
+        this.limiter = new AdaptiveConcurrencyLimiter(
+                plugin.getConfig().getInt("database.async.limiter.min-limit", 2),
+                maxConnections,
+                plugin.getConfig().getDouble("database.async.limiter.latency-tolerance", 2.0),
+                plugin.getConfig().getDouble("database.async.limiter.backoff", 0.9),
+                plugin.getConfig().getInt("database.async.queue-size", 1000));
         this.activeOperations = new ConcurrentHashMap<>();
         this.operationCounter = new AtomicLong(0);
 
         startMaintenanceTasks();
+
+        this.maintenanceScheduler = new MaintenanceScheduler(plugin, databaseManager, monitor,
+                () -> activeOperations.size() + databaseManager.getPendingWriteCount());
+        maintenanceScheduler.start((ScheduledExecutorService) maintenanceExecutor);
+
         plugin.getLogger().info("Async Database Manager initialized - " +
                 "Read threads: " + readThreads + ", Write threads: " + writeThreads +
-                ", Max connections: " + maxConnections);
+                ", Max in-flight: " + maxConnections + " (adaptive)");
     }
 
     public <T> CompletableFuture<T> executeRead(String operationType, Supplier<T> operation) {
+        return executeRead(operationType, AdaptiveConcurrencyLimiter.Priority.HIGH, operation);
+    }
+
+    public <T> CompletableFuture<T> executeRead(String operationType, AdaptiveConcurrencyLimiter.Priority priority, Supplier<T> operation) {
+        return submit("Read", operationType, priority, operation, readExecutor);
+    }
+
+    public <T> CompletableFuture<T> executeWrite(String operationType, Supplier<T> operation) {
+        return executeWrite(operationType, AdaptiveConcurrencyLimiter.Priority.NORMAL, operation);
+    }
+
+    public <T> CompletableFuture<T> executeWrite(String operationType, AdaptiveConcurrencyLimiter.Priority priority, Supplier<T> operation) {
+        return submit("Write", operationType, priority, operation, writeExecutor);
+    }
+
+    /**
+     * For calls that are already asynchronous, such as the DatabaseManager methods. The permit is held from the
+     * call until its future completes, without tying up a pool thread. The call runs wherever the permit is
+     * handed out, so it must only queue its work.
+     */
+    public <T> CompletableFuture<T> readAsync(String operationType, AdaptiveConcurrencyLimiter.Priority priority,
+                                              Supplier<CompletableFuture<T>> call) {
+        return submitAsync("Read", operationType, priority, true, call);
+    }
+
+    /**
+     * Like {@link #readAsync}. Writes to a backend that batches them are counted against the limit but not used
+     * as latency samples, their completion time is mostly the group-commit delay.
+     */
+    public <T> CompletableFuture<T> writeAsync(String operationType, AdaptiveConcurrencyLimiter.Priority priority,
+                                               Supplier<CompletableFuture<T>> call) {
+        return submitAsync("Write", operationType, priority, !databaseManager.batchesWrites(), call);
+    }
+
+    private <T> CompletableFuture<T> submitAsync(String kind, String operationType, AdaptiveConcurrencyLimiter.Priority priority,
+                                                 boolean sampleLatency, Supplier<CompletableFuture<T>> call) {
         if (circuitOpen) {
             return CompletableFuture.failedFuture(
                     new RuntimeException("Database circuit breaker is open"));
         }
 
         String operationId = generateOperationId(operationType);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        activeOperations.put(operationId, future);
+        future.whenComplete((result, throwable) -> activeOperations.remove(operationId));
 
-        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
-            long startTime = System.nanoTime();
-            boolean acquired = false;
+        limiter.acquire(priority, () -> {
+            if (future.isDone()) {
+                limiter.release(-1, false);
+                return;
+            }
 
+            long startTime = System.nanoTime();
+            CompletableFuture<T> started;
             try {
-                acquired = connectionSemaphore.tryAcquire(
-                        plugin.getConfig().getLong("database.async.connection-timeout", 10000),
-                        TimeUnit.MILLISECONDS
-                );
+                started = call.get();
+            } catch (RuntimeException e) {
+                started = CompletableFuture.failedFuture(e);
+            }
 
-                if (!acquired) {
-                    throw new RuntimeException("Connection pool exhausted for read operation: " + operationType);
+            started.whenComplete((result, throwable) -> {
+                long elapsed = System.nanoTime() - startTime;
+                boolean success = throwable == null;
+                monitor.recordQuery(operationType, elapsed / 1_000_000, success);
+
+                if (success) {
+                    resetCircuitBreaker();
+                    future.complete(result);
+                } else {
+                    handleOperationFailure(throwable);
+                    future.completeExceptionally(new RuntimeException(kind + " operation failed: " + operationType, throwable));
                 }
 
-                T result = operation.get();
-
-                long duration = (System.nanoTime() - startTime) / 1_000_000;
-                monitor.recordQuery(operationType, duration, true);
-                resetCircuitBreaker();
+                limiter.release(sampleLatency ? elapsed : -1, success);
+            });
+        }, future::completeExceptionally);
 
-                return result;
-
-            } catch (Exception e) {
-                long duration = (System.nanoTime() - startTime) / 1_000_000;
-                monitor.recordQuery(operationType, duration, false);
-                handleOperationFailure(e);
-                throw new RuntimeException("Read operation failed: " + operationType, e);
-
-            } finally {
-                if (acquired) {
-                    connectionSemaphore.release();
-                }
-                activeOperations.remove(operationId);
-            }
-        }, readExecutor);
-
-        activeOperations.put(operationId, future);
         return future;
     }
 
-    public <T> CompletableFuture<T> executeWrite(String operationType, Supplier<T> operation) {
+    /**
+     * Work only starts once the limiter hands out a permit, and always on the given executor. If the limiter
+     * sheds it or the executor queue is full, the future fails instead of running the call on the caller's thread.
+     */
+    private <T> CompletableFuture<T> submit(String kind, String operationType, AdaptiveConcurrencyLimiter.Priority priority,
+                                            Supplier<T> operation, ExecutorService executor) {
         if (circuitOpen) {
             return CompletableFuture.failedFuture(
                     new RuntimeException("Database circuit breaker is open"));
         }
 
         String operationId = generateOperationId(operationType);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        activeOperations.put(operationId, future);
+        future.whenComplete((result, throwable) -> activeOperations.remove(operationId));
 
-        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
-            long startTime = System.nanoTime();
-            boolean acquired = false;
-
+        limiter.acquire(priority, () -> {
+            if (future.isDone()) {
+                // Cancelled or timed out while waiting for a slot
+                limiter.release(-1, false);
+                return;
+            }
             try {
-                acquired = connectionSemaphore.tryAcquire(
-                        plugin.getConfig().getLong("database.async.connection-timeout", 10000),
-                        TimeUnit.MILLISECONDS
-                );
-
-                if (!acquired) {
-                    throw new RuntimeException("Connection pool exhausted for write operation: " + operationType);
-                }
-
-                T result = operation.get();
-
-                long duration = (System.nanoTime() - startTime) / 1_000_000;
-                monitor.recordQuery(operationType, duration, true);
-                resetCircuitBreaker();
-
-                return result;
-
-            } catch (Exception e) {
-                long duration = (System.nanoTime() - startTime) / 1_000_000;
-                monitor.recordQuery(operationType, duration, false);
-                handleOperationFailure(e);
-                throw new RuntimeException("Write operation failed: " + operationType, e);
-
-            } finally {
-                if (acquired) {
-                    connectionSemaphore.release();
-                }
-                activeOperations.remove(operationId);
+                executor.execute(() -> {
+                    long startTime = System.nanoTime();
+                    boolean success = false;
+
+                    try {
+                        T result = operation.get();
+                        success = true;
+
+                        monitor.recordQuery(operationType, (System.nanoTime() - startTime) / 1_000_000, true);
+                        resetCircuitBreaker();
+                        future.complete(result);
+
+                    } catch (Exception e) {
+                        monitor.recordQuery(operationType, (System.nanoTime() - startTime) / 1_000_000, false);
+                        handleOperationFailure(e);
+                        future.completeExceptionally(new RuntimeException(kind + " operation failed: " + operationType, e));
+
+                    } finally {
+                        limiter.release(System.nanoTime() - startTime, success);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                limiter.release(-1, false);
+                future.completeExceptionally(e);
             }
-        }, writeExecutor);
+        }, future::completeExceptionally);
 
-        activeOperations.put(operationId, future);
         return future;
     }
 
@@ -180,7 +234,7 @@ public class AsyncDatabaseManager {
                 60L, TimeUnit.SECONDS,
                 new LinkedBlockingQueue<>(plugin.getConfig().getInt("database.async.queue-size", 1000)),
                 factory,
-                new ThreadPoolExecutor.CallerRunsPolicy()
+                new ThreadPoolExecutor.AbortPolicy()
         );
     }
 
@@ -192,6 +246,14 @@ public class AsyncDatabaseManager {
                 TimeUnit.MILLISECONDS
         );
 
+        long maxWait = plugin.getConfig().getLong("database.async.connection-timeout", 10000);
+        ((ScheduledExecutorService) maintenanceExecutor).scheduleAtFixedRate(
+                () -> limiter.expire(TimeUnit.MILLISECONDS.toNanos(maxWait)),
+                1000,
+                1000,
+                TimeUnit.MILLISECONDS
+        );
+
         ((ScheduledExecutorService) maintenanceExecutor).scheduleAtFixedRate(
                 this::checkCircuitBreaker,
                 10000,
@@ -204,7 +266,7 @@ public class AsyncDatabaseManager {
         return operationType + "-" + operationCounter.incrementAndGet();
     }
 
-    private void handleOperationFailure(Exception e) {
+    private void handleOperationFailure(Throwable e) {
         long failures = failureCount.incrementAndGet();
         lastFailureTime.set(System.currentTimeMillis());
 
@@ -249,12 +311,10 @@ public class AsyncDatabaseManager {
     }
 
     private void monitorConnectionPool() {
-        int available = connectionSemaphore.availablePermits();
-        int total = connectionSemaphore.availablePermits() + activeOperations.size();
-
-        if (available < total * 0.2) {
-            plugin.getLogger().warning("Database connection pool running low: " +
-                    available + "/" + total + " available");
+        int queued = limiter.getQueued();
+        if (queued > 0 && limiter.getInFlight() >= limiter.getLimit()) {
+            plugin.getLogger().warning("Database work is queuing: " + queued + " waiting, " +
+                    limiter.getInFlight() + "/" + limiter.getLimit() + " in flight, " + limiter.getShedCount() + " shed");
         }
     }
 
@@ -276,7 +336,11 @@ public class AsyncDatabaseManager {
     }
 
     public int getAvailableConnections() {
-        return connectionSemaphore.availablePermits();
+        return Math.max(0, limiter.getLimit() - limiter.getInFlight());
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
     }
 
     public boolean isCircuitOpen() {
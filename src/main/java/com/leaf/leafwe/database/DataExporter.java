@@ -0,0 +1,270 @@
+package com.leaf.leafwe.database;
+
+import com.leaf.leafwe.LeafWE;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams daily_usage / player_stats rows into a gzip CSV or NDJSON file under exports/.
+ * Rows go straight from the database cursor to the compressed writer, so memory use does not
+ * depend on table size. Only one export runs at a time.
+ */
+public class DataExporter {
+
+    public enum Dataset { USAGE, STATS }
+
+    public enum Format { CSV, NDJSON }
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final LeafWE plugin;
+    private final DatabaseManager databaseManager;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public DataExporter(LeafWE plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Starts an export and reports progress to the sender. Returns false if another export is still running.
+     */
+    public boolean export(CommandSender sender, Dataset dataset, ExportRange range, Format format) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        File exportDir = new File(plugin.getDataFolder(), "exports");
+        if (!exportDir.exists() && !exportDir.mkdirs()) {
+            running.set(false);
+            sender.sendMessage(Component.text("Could not create export directory: " + exportDir.getPath(), NamedTextColor.RED));
+            return true;
+        }
+
+        String fileName = dataset.name().toLowerCase() + "-" + range.label() + "-" +
+                LocalDateTime.now().format(FILE_STAMP) + (format == Format.CSV ? ".csv.gz" : ".ndjson.gz");
+        File target = new File(exportDir, fileName);
+
+        AtomicLong rows = new AtomicLong();
+        long startTime = System.currentTimeMillis();
+
+        BukkitRunnable progressTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                sender.sendMessage(Component.text("Export in progress: " + rows.get() + " rows written...", NamedTextColor.GRAY));
+            }
+        };
+        progressTask.runTaskTimerAsynchronously(plugin, 100L, 100L);
+
+        sender.sendMessage(Component.text("Exporting " + dataset.name().toLowerCase() + " (" + range.label() +
+                ") to exports/" + fileName, NamedTextColor.YELLOW));
+
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return openWriter(target);
+            } catch (IOException e) {
+                throw new java.util.concurrent.CompletionException(e);
+            }
+        }).thenCompose(writer -> runExport(writer, dataset, range, format, rows)
+                .whenComplete((count, throwable) -> {
+                    try {
+                        writer.close();
+                    } catch (IOException e) {
+                        plugin.getLogger().warning("Error closing export file: " + e.getMessage());
+                    }
+                })
+        ).whenComplete((count, throwable) -> {
+            progressTask.cancel();
+            running.set(false);
+
+            if (throwable != null) {
+                Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+                plugin.getLogger().severe("Export failed: " + cause.getMessage());
+                sender.sendMessage(Component.text("Export failed: " + cause.getMessage(), NamedTextColor.RED));
+                if (target.exists() && !target.delete()) {
+                    plugin.getLogger().warning("Could not remove partial export: " + target.getName());
+                }
+                return;
+            }
+
+            long elapsed = System.currentTimeMillis() - startTime;
+            sender.sendMessage(Component.text("Export complete: " + count + " rows, " +
+                    (target.length() / 1024) + " KB in " + elapsed + "ms", NamedTextColor.GREEN));
+        });
+
+        return true;
+    }
+
+    private CompletableFuture<Long> runExport(Writer writer, Dataset dataset, ExportRange range,
+                                              Format format, AtomicLong rows) {
+        try {
+            if (dataset == Dataset.USAGE) {
+                if (format == Format.CSV) {
+                    writer.write("player_id,date,blocks_used,operations_used,player_group,last_updated\n");
+                }
+                return databaseManager.streamDailyUsage(range.fromDate, range.toDate, usage -> {
+                    writeUsage(writer, format, usage);
+                    rows.incrementAndGet();
+                });
+            }
+
+            if (format == Format.CSV) {
+                writer.write("player_id,total_blocks_placed,total_operations,total_playtime,favorite_block,first_seen,last_seen\n");
+            }
+            return databaseManager.streamPlayerStats(range.sinceMillis(), stats -> {
+                writeStats(writer, format, stats);
+                rows.incrementAndGet();
+            });
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Writer openWriter(File target) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(target), 64 * 1024), StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private void writeUsage(Writer writer, Format format, DatabaseManager.DailyUsageData usage) throws IOException {
+        if (format == Format.CSV) {
+            writer.write(usage.playerId + "," + usage.date + "," + usage.blocksUsed + "," + usage.operationsUsed + "," +
+                    csv(usage.playerGroup) + "," + usage.lastUpdated + "\n");
+        } else {
+            writer.write("{\"player_id\":\"" + usage.playerId + "\",\"date\":\"" + usage.date +
+                    "\",\"blocks_used\":" + usage.blocksUsed + ",\"operations_used\":" + usage.operationsUsed +
+                    ",\"player_group\":" + json(usage.playerGroup) + ",\"last_updated\":" + usage.lastUpdated + "}\n");
+        }
+    }
+
+    private void writeStats(Writer writer, Format format, DatabaseManager.PlayerStats stats) throws IOException {
+        if (format == Format.CSV) {
+            writer.write(stats.playerId + "," + stats.totalBlocksPlaced + "," + stats.totalOperations + "," +
+                    stats.totalPlayTime + "," + csv(stats.favoriteBlock) + "," + stats.firstSeen + "," + stats.lastSeen + "\n");
+        } else {
+            writer.write("{\"player_id\":\"" + stats.playerId + "\",\"total_blocks_placed\":" + stats.totalBlocksPlaced +
+                    ",\"total_operations\":" + stats.totalOperations + ",\"total_playtime\":" + stats.totalPlayTime +
+                    ",\"favorite_block\":" + json(stats.favoriteBlock) + ",\"first_seen\":" + stats.firstSeen +
+                    ",\"last_seen\":" + stats.lastSeen + "}\n");
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String json(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Inclusive date range. Accepts "today", "&lt;N&gt;d", "all", a single yyyy-MM-dd day or "yyyy-MM-dd..yyyy-MM-dd".
+     * Stats exports only use the lower bound (players last seen on or after fromDate).
+     */
+    public static class ExportRange {
+        public final String fromDate;
+        public final String toDate;
+        private final String raw;
+
+        private ExportRange(String fromDate, String toDate, String raw) {
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+            this.raw = raw;
+        }
+
+        public static ExportRange parse(String input) {
+            String value = input.toLowerCase();
+            LocalDate today = LocalDate.now();
+
+            try {
+                if (value.equals("all")) {
+                    return new ExportRange("0000-01-01", "9999-12-31", "all");
+                }
+                if (value.equals("today")) {
+                    String date = today.format(DATE_FORMAT);
+                    return new ExportRange(date, date, date);
+                }
+                if (value.endsWith("d") && value.length() > 1) {
+                    int days = Integer.parseInt(value.substring(0, value.length() - 1));
+                    if (days < 1) {
+                        return null;
+                    }
+                    return new ExportRange(today.minusDays(days - 1L).format(DATE_FORMAT), today.format(DATE_FORMAT), days + "d");
+                }
+                if (value.contains("..")) {
+                    String[] parts = value.split("\\.\\.", 2);
+                    LocalDate from = LocalDate.parse(parts[0], DATE_FORMAT);
+                    LocalDate to = LocalDate.parse(parts[1], DATE_FORMAT);
+                    if (to.isBefore(from)) {
+                        return null;
+                    }
+                    return new ExportRange(from.format(DATE_FORMAT), to.format(DATE_FORMAT), from + "_" + to);
+                }
+                LocalDate day = LocalDate.parse(value, DATE_FORMAT);
+                return new ExportRange(day.format(DATE_FORMAT), day.format(DATE_FORMAT), day.toString());
+            } catch (NumberFormatException | DateTimeParseException e) {
+                return null;
+            }
+        }
+
+        public long sinceMillis() {
+            if (raw.equals("all")) {
+                return 0L;
+            }
+            return LocalDate.parse(fromDate, DATE_FORMAT).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+
+        public String label() {
+            return raw;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.leaf.leafwe.database;
+
+import com.leaf.leafwe.LeafWE;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.CommandSender;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes database snapshots into backups/ through the backend's online backup and keeps the newest
+ * database.backup.keep files. Snapshots are written to a .part file and renamed once complete, so a
+ * file in backups/ is always a finished copy.
+ */
+public class DatabaseBackup {
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final String PREFIX = "leafwe-";
+
+    private final LeafWE plugin;
+    private final DatabaseManager databaseManager;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public DatabaseBackup(LeafWE plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Starts a backup and reports the result to the sender. Returns false if another backup is still running.
+     */
+    public boolean backup(CommandSender sender) {
+        if (!databaseManager.supportsBackup()) {
+            sender.sendMessage(Component.text(databaseManager.getDatabaseType() +
+                    " backups are not handled by LeafWE - use your database server's own tools.", NamedTextColor.RED));
+            return true;
+        }
+
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        File backupDir = new File(plugin.getDataFolder(), plugin.getConfig().getString("database.backup.directory", "backups"));
+        if (!backupDir.exists() && !backupDir.mkdirs()) {
+            running.set(false);
+            sender.sendMessage(Component.text("Could not create backup directory: " + backupDir.getPath(), NamedTextColor.RED));
+            return true;
+        }
+
+        String extension = databaseManager.getDatabaseType().equals("SQLite") ? ".db" : ".bin";
+        File target = new File(backupDir, PREFIX + LocalDateTime.now().format(FILE_STAMP) + extension);
+        File partial = new File(backupDir, target.getName() + ".part");
+        long startTime = System.currentTimeMillis();
+
+        sender.sendMessage(Component.text("Backing up database to " + backupDir.getName() + "/" + target.getName() + "...", NamedTextColor.YELLOW));
+
+        databaseManager.backupTo(partial).thenRun(() -> {
+            try {
+                Files.move(partial.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new java.util.concurrent.CompletionException(e);
+            }
+            rotate(backupDir, extension);
+        }).whenComplete((ignored, throwable) -> {
+            running.set(false);
+
+            if (throwable != null) {
+                Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+                plugin.getLogger().severe("Database backup failed: " + cause.getMessage());
+                sender.sendMessage(Component.text("Backup failed: " + cause.getMessage(), NamedTextColor.RED));
+                if (partial.exists() && !partial.delete()) {
+                    plugin.getLogger().warning("Could not remove partial backup: " + partial.getName());
+                }
+                return;
+            }
+
+            long elapsed = System.currentTimeMillis() - startTime;
+            sender.sendMessage(Component.text("Backup complete: " + target.getName() + " (" +
+                    (target.length() / 1024) + " KB in " + elapsed + "ms)", NamedTextColor.GREEN));
+        });
+
+        return true;
+    }
+
+    private void rotate(File backupDir, String extension) {
+        int keep = Math.max(1, plugin.getConfig().getInt("database.backup.keep", 5));
+
+        File[] snapshots = backupDir.listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(extension));
+        if (snapshots == null || snapshots.length <= keep) {
+            return;
+        }
+
+        // Timestamped names sort chronologically
+        Arrays.sort(snapshots, Comparator.comparing(File::getName).reversed());
+        for (int i = keep; i < snapshots.length; i++) {
+            if (!snapshots[i].delete()) {
+                plugin.getLogger().warning("Could not delete old backup: " + snapshots[i].getName());
+            }
+        }
+    }
+}
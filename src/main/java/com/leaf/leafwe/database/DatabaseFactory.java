@@ -1,6 +1,7 @@
 package com.leaf.leafwe.database;
 
 import com.leaf.leafwe.LeafWE;
+import com.leaf.leafwe.database.impl.MemoryDatabaseManager;
 import com.leaf.leafwe.database.impl.SQLiteDatabaseManager;
 import com.leaf.leafwe.database.impl.MySQLDatabaseManager;
 
@@ -8,7 +9,8 @@ public class DatabaseFactory {
 
     public enum DatabaseType {
         SQLITE,
-        MYSQL
+        MYSQL,
+        MEMORY
     }
 
     public static DatabaseManager createDatabaseManager(LeafWE plugin, DatabaseType type) {
@@ -17,6 +19,8 @@ public class DatabaseFactory {
                 return new SQLiteDatabaseManager(plugin);
             case MYSQL:
                 return new MySQLDatabaseManager(plugin);
+            case MEMORY:
+                return new MemoryDatabaseManager(plugin);
             default:
                 throw new IllegalArgumentException("Unsupported database type: " + type);
         }
@@ -32,6 +36,9 @@ public class DatabaseFactory {
             case "mysql":
                 plugin.getLogger().info("Using MySQL database");
                 return new MySQLDatabaseManager(plugin);
+            case "memory":
+                plugin.getLogger().info("Using in-memory database");
+                return new MemoryDatabaseManager(plugin);
             default:
                 plugin.getLogger().warning("Unknown database type '" + databaseType + "', falling back to SQLite");
                 return new SQLiteDatabaseManager(plugin);
@@ -54,6 +61,8 @@ public class DatabaseFactory {
                 return validateSQLiteConfig(plugin);
             case MYSQL:
                 return validateMySQLConfig(plugin);
+            case MEMORY:
+                return true;
             default:
                 return false;
         }
@@ -104,6 +113,8 @@ public class DatabaseFactory {
                 int port = plugin.getConfig().getInt("database.mysql.port", 3306);
                 String database = plugin.getConfig().getString("database.mysql.database", "leafwe");
                 return "MySQL: " + host + ":" + port + "/" + database;
+            case MEMORY:
+                return "Memory: " + plugin.getConfig().getString("database.memory.snapshot-file", "data/leafwe-memory.bin");
             default:
                 return "Unknown database type";
         }
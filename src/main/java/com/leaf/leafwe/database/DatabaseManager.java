@@ -20,17 +20,135 @@ public interface DatabaseManager {
     CompletableFuture<PlayerStats> getPlayerStats(UUID playerId);
     CompletableFuture<Boolean> updatePlayerStats(UUID playerId, String statType, long value);
     CompletableFuture<Boolean> incrementPlayerStat(UUID playerId, String statType, long increment);
+    /**
+     * Adds totalBlocksPlaced and totalOperations of each entry to the player's stored stats.
+     */
+    CompletableFuture<Boolean> batchIncrementPlayerStats(java.util.List<PlayerStats> deltas);
+    /**
+     * Highest values of a player_stats column, read through the column index.
+     */
+    CompletableFuture<java.util.List<PlayerStats>> getTopPlayers(String statType, int limit);
 
     CompletableFuture<Boolean> recordSession(UUID playerId, String sessionType, long duration);
     CompletableFuture<SessionData> getLastSession(UUID playerId);
 
     CompletableFuture<Boolean> batchUpdateDailyUsage(java.util.List<DailyUsageData> usageList);
+    /**
+     * Adds the block/operation counts of each entry to the stored row, creating it when missing.
+     */
+    CompletableFuture<Boolean> batchIncrementDailyUsage(java.util.List<DailyUsageData> deltas);
     CompletableFuture<java.util.List<DailyUsageData>> getAllDailyUsage(String date);
 
+    /**
+     * Reserves blocks and one operation on the player's row for date in a single conditional update, so two
+     * servers checking at once cannot both get through. Completes with false when used + reserved + requested
+     * would pass maxBlocks or maxOperations (-1 means unlimited). If the row's last reservation is older than
+     * staleBefore (epoch millis), the reservations it holds are treated as abandoned (crash, lost settle) and
+     * are replaced rather than added to.
+     */
+    CompletableFuture<Boolean> reserveDailyUsage(UUID playerId, String date, String group, int blocks, int maxBlocks,
+                                                 int maxOperations, long staleBefore);
+    /**
+     * Turns a reservation into usage: drops reservedBlocks and one reserved operation and adds usedBlocks and
+     * one operation. Creates the row if it was reset in the meantime.
+     */
+    CompletableFuture<Boolean> commitDailyReservation(UUID playerId, String date, String group, int reservedBlocks, int usedBlocks);
+    CompletableFuture<Boolean> releaseDailyReservation(UUID playerId, String date, int reservedBlocks);
+
+    /**
+     * True when daily_usage rows carry a change version that other servers can poll.
+     */
+    default boolean supportsChangeTracking() {
+        return false;
+    }
+
+    /**
+     * Up to limit rows of date changed after (sinceVersion, afterPlayerId), ordered by version then player so a
+     * caller can page through rows that share a version. A negative sinceVersion returns no rows, only the
+     * current version to start polling from.
+     */
+    default CompletableFuture<UsageChanges> getDailyUsageChangedSince(String date, long sinceVersion, String afterPlayerId, int limit) {
+        return CompletableFuture.failedFuture(new UnsupportedOperationException(getDatabaseType() + " does not track row versions"));
+    }
+
+    /**
+     * Streams daily_usage rows with fromDate &lt;= date &lt;= toDate through a forward-only cursor.
+     * Rows are handed to the consumer one at a time; the future completes with the row count.
+     */
+    CompletableFuture<Long> streamDailyUsage(String fromDate, String toDate, RowConsumer<DailyUsageData> consumer);
+    /**
+     * Streams player_stats rows last seen at or after seenSince (epoch millis).
+     */
+    CompletableFuture<Long> streamPlayerStats(long seenSince, RowConsumer<PlayerStats> consumer);
+
     String getDatabaseType();
     String getConnectionInfo();
     CompletableFuture<DatabaseStats> getDatabaseStats();
 
+    /**
+     * Connection pool telemetry, or null for backends without a pool.
+     */
+    default ConnectionPoolStats getConnectionPoolStats() {
+        return null;
+    }
+
+    /**
+     * Recent slow queries with their plans, or null if the backend does not capture them.
+     */
+    default SlowQueryAnalyzer getSlowQueryAnalyzer() {
+        return null;
+    }
+
+    /**
+     * Writes accepted but not yet committed (SQLite writer queue); 0 for backends that write directly.
+     */
+    default int getPendingWriteCount() {
+        return 0;
+    }
+
+    /**
+     * True when writes wait for a group commit, so their completion time is mostly the batching delay and says
+     * little about how loaded the database is.
+     */
+    default boolean batchesWrites() {
+        return false;
+    }
+
+    default boolean supportsMaintenance(MaintenanceTask task) {
+        return false;
+    }
+
+    /**
+     * Runs one housekeeping task (statistics refresh, WAL checkpoint, vacuum). Backends that do not
+     * support the task complete with false without touching the database.
+     */
+    default CompletableFuture<Boolean> performMaintenance(MaintenanceTask task) {
+        return CompletableFuture.completedFuture(false);
+    }
+
+    default boolean supportsBackup() {
+        return false;
+    }
+
+    /**
+     * Writes a consistent copy of the database to target while the server keeps running.
+     */
+    default CompletableFuture<Void> backupTo(java.io.File target) {
+        return CompletableFuture.failedFuture(new UnsupportedOperationException(getDatabaseType() + " does not support online backups"));
+    }
+
+    enum MaintenanceTask {
+        OPTIMIZE,
+        ANALYZE,
+        CHECKPOINT,
+        INCREMENTAL_VACUUM
+    }
+
+    @FunctionalInterface
+    interface RowConsumer<T> {
+        void accept(T row) throws java.io.IOException;
+    }
+
     class DailyUsageData {
         public final UUID playerId;
         public final String date;
@@ -49,6 +167,21 @@ public interface DatabaseManager {
         }
     }
 
+    class UsageChanges {
+        public final java.util.List<DailyUsageData> rows;
+        public final long latestVersion;
+        public final String latestPlayerId;
+        // The limit was reached; more changed rows are waiting
+        public final boolean hasMore;
+
+        public UsageChanges(java.util.List<DailyUsageData> rows, long latestVersion, String latestPlayerId, boolean hasMore) {
+            this.rows = rows;
+            this.latestVersion = latestVersion;
+            this.latestPlayerId = latestPlayerId;
+            this.hasMore = hasMore;
+        }
+    }
+
     class PlayerStats {
         public final UUID playerId;
         public final long totalBlocksPlaced;
@@ -106,4 +239,30 @@ public interface DatabaseManager {
             this.status = status;
         }
     }
-}
\ No newline at end of file
+
+    class ConnectionPoolStats {
+        public final int activeConnections;
+        public final int idleConnections;
+        public final int totalConnections;
+        public final int maximumPoolSize;
+        public final int threadsAwaitingConnection;
+        public final long acquireCount;
+        public final long acquireTimeNanos;
+        public final long maxAcquireTimeNanos;
+        public final long connectionTimeouts;
+
+        public ConnectionPoolStats(int activeConnections, int idleConnections, int totalConnections, int maximumPoolSize,
+                                   int threadsAwaitingConnection, long acquireCount, long acquireTimeNanos,
+                                   long maxAcquireTimeNanos, long connectionTimeouts) {
+            this.activeConnections = activeConnections;
+            this.idleConnections = idleConnections;
+            this.totalConnections = totalConnections;
+            this.maximumPoolSize = maximumPoolSize;
+            this.threadsAwaitingConnection = threadsAwaitingConnection;
+            this.acquireCount = acquireCount;
+            this.acquireTimeNanos = acquireTimeNanos;
+            this.maxAcquireTimeNanos = maxAcquireTimeNanos;
+            this.connectionTimeouts = connectionTimeouts;
+        }
+    }
+}
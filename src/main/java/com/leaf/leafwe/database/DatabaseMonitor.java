@@ -23,6 +23,7 @@ public class DatabaseMonitor {
 
     private final ConcurrentHashMap<String, Long> lastQueryTimes = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, QueryStats> queryStats = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, MaintenanceStats> maintenanceStats = new ConcurrentHashMap<>();
     private final List<HealthCheckResult> healthHistory = new ArrayList<>();
 
     private final long SLOW_QUERY_THRESHOLD;
@@ -31,6 +32,12 @@ public class DatabaseMonitor {
 
     private BukkitRunnable healthCheckTask;
     private BukkitRunnable metricsReportTask;
+    private BukkitRunnable poolSampleTask;
+
+    private volatile DatabaseManager.ConnectionPoolStats latestPoolStats;
+    private volatile double recentAcquireMillis = 0.0;
+    private final AtomicInteger peakActiveConnections = new AtomicInteger(0);
+    private final AtomicInteger peakWaitingThreads = new AtomicInteger(0);
 
     public DatabaseMonitor(LeafWE plugin, DatabaseManager databaseManager) {
         this.plugin = plugin;
@@ -46,6 +53,7 @@ public class DatabaseMonitor {
     private void startMonitoring() {
         startHealthCheckTask();
         startMetricsReportTask();
+        startPoolSampleTask();
 
         plugin.getLogger().info("Database monitoring started - Health checks every " +
                 (HEALTH_CHECK_INTERVAL / 60) + " minutes");
@@ -57,12 +65,9 @@ public class DatabaseMonitor {
         if (success) {
             totalQueryTime.addAndGet(executionTime);
 
+            // Logged with SQL and parameters by the backend's SlowQueryAnalyzer, only counted here
             if (executionTime > SLOW_QUERY_THRESHOLD) {
                 slowQueries.incrementAndGet();
-
-                if (plugin.getConfig().getBoolean("database.performance.log-slow-queries", true)) {
-                    plugin.getLogger().warning("Slow query detected: " + queryType + " took " + executionTime + "ms");
-                }
             }
 
             queryStats.compute(queryType, (key, existing) -> {
@@ -85,6 +90,51 @@ public class DatabaseMonitor {
         lastQueryTimes.put(queryType, System.currentTimeMillis());
     }
 
+    public void recordMaintenance(String task, long durationMillis, boolean success) {
+        maintenanceStats.compute(task, (key, existing) -> {
+            MaintenanceStats stats = existing != null ? existing : new MaintenanceStats(task);
+            stats.runs++;
+            if (!success) {
+                stats.failures++;
+            }
+            stats.lastDuration = durationMillis;
+            stats.maxDuration = Math.max(stats.maxDuration, durationMillis);
+            stats.lastRun = System.currentTimeMillis();
+            return stats;
+        });
+
+        if (plugin.getConfig().getBoolean("database.maintenance.log-runs", false)) {
+            plugin.getLogger().info("Database maintenance " + task + " " + (success ? "completed" : "failed") +
+                    " in " + durationMillis + "ms");
+        }
+    }
+
+    /**
+     * One-line summary of the last maintenance runs for /lwe status, or null if nothing has run yet.
+     */
+    public String getMaintenanceSummary() {
+        if (maintenanceStats.isEmpty()) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        StringBuilder sb = new StringBuilder();
+        maintenanceStats.values().stream()
+                .sorted((a, b) -> a.task.compareTo(b.task))
+                .forEach(stats -> {
+                    if (sb.length() > 0) {
+                        sb.append(", ");
+                    }
+                    sb.append(stats.task).append(' ').append(stats.lastDuration).append("ms (")
+                            .append((now - stats.lastRun) / 60000).append("m ago");
+                    if (stats.failures > 0) {
+                        sb.append(", ").append(stats.failures).append(" failed");
+                    }
+                    sb.append(')');
+                });
+        return sb.toString();
+    }
+
     private void startHealthCheckTask() {
         healthCheckTask = new BukkitRunnable() {
             @Override
@@ -112,6 +162,57 @@ public class DatabaseMonitor {
         long reportInterval = plugin.getConfig().getLong("database.monitoring.report-interval", 3600) * 20L;
         metricsReportTask.runTaskTimerAsynchronously(plugin, reportInterval, reportInterval);
     }
+    private void startPoolSampleTask() {
+        if (databaseManager.getConnectionPoolStats() == null) {
+            return;
+        }
+
+        poolSampleTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                samplePoolMetrics();
+            }
+        };
+
+        long sampleInterval = plugin.getConfig().getLong("database.monitoring.pool-sample-interval", 5) * 20L;
+        poolSampleTask.runTaskTimerAsynchronously(plugin, sampleInterval, sampleInterval);
+    }
+
+    private void samplePoolMetrics() {
+        DatabaseManager.ConnectionPoolStats stats = databaseManager.getConnectionPoolStats();
+        if (stats == null) {
+            return;
+        }
+
+        DatabaseManager.ConnectionPoolStats previous = latestPoolStats;
+        if (previous != null) {
+            long acquired = stats.acquireCount - previous.acquireCount;
+            if (acquired > 0) {
+                recentAcquireMillis = (stats.acquireTimeNanos - previous.acquireTimeNanos) / (double) acquired / 1_000_000.0;
+            }
+        }
+
+        latestPoolStats = stats;
+        currentConnections.set(stats.activeConnections);
+        peakActiveConnections.accumulateAndGet(stats.activeConnections, Math::max);
+        peakWaitingThreads.accumulateAndGet(stats.threadsAwaitingConnection, Math::max);
+    }
+
+    /**
+     * One-line pool summary for /lwe status, or null when the backend has no connection pool.
+     */
+    public String getPoolSummary() {
+        DatabaseManager.ConnectionPoolStats stats = latestPoolStats;
+        if (stats == null) {
+            return null;
+        }
+
+        return String.format("active=%d/%d, idle=%d, waiting=%d, acquire=%.2fms (peak active=%d, peak waiting=%d, timeouts=%d)",
+                stats.activeConnections, stats.maximumPoolSize, stats.idleConnections,
+                stats.threadsAwaitingConnection, recentAcquireMillis,
+                peakActiveConnections.get(), peakWaitingThreads.get(), stats.connectionTimeouts);
+    }
+
     private void performHealthCheck() {
         long startTime = System.currentTimeMillis();
 
@@ -174,6 +275,18 @@ public class DatabaseMonitor {
                 String.format("%.2f%%", metrics.failureRate) + ")");
         plugin.getLogger().info("Current Connections: " + metrics.currentConnections);
 
+        DatabaseManager.ConnectionPoolStats pool = latestPoolStats;
+        if (pool != null) {
+            double avgAcquire = pool.acquireCount > 0 ? pool.acquireTimeNanos / (double) pool.acquireCount / 1_000_000.0 : 0.0;
+            plugin.getLogger().info("Connection Pool: " + getPoolSummary());
+            plugin.getLogger().info(String.format("Connection Acquire: %d total, avg %.2f ms, max %.2f ms",
+                    pool.acquireCount, avgAcquire, pool.maxAcquireTimeNanos / 1_000_000.0));
+
+            if (peakWaitingThreads.get() > 0 || peakActiveConnections.get() >= pool.maximumPoolSize) {
+                plugin.getLogger().info("Pool was saturated since the last reset - consider raising maximum-pool-size");
+            }
+        }
+
         if (!queryStats.isEmpty()) {
             plugin.getLogger().info("--- Query Breakdown ---");
             queryStats.forEach((type, stats) -> {
@@ -182,6 +295,14 @@ public class DatabaseMonitor {
             });
         }
 
+        if (!maintenanceStats.isEmpty()) {
+            plugin.getLogger().info("--- Maintenance ---");
+            maintenanceStats.forEach((task, stats) -> {
+                plugin.getLogger().info(String.format("%s: %d runs, last: %d ms, max: %d ms, failures: %d",
+                        task, stats.runs, stats.lastDuration, stats.maxDuration, stats.failures));
+            });
+        }
+
         plugin.getLogger().info("================================");
     }
 
@@ -222,7 +343,10 @@ public class DatabaseMonitor {
         totalQueryTime.set(0);
         slowQueries.set(0);
         failedQueries.set(0);
+        peakActiveConnections.set(0);
+        peakWaitingThreads.set(0);
         queryStats.clear();
+        maintenanceStats.clear();
         lastQueryTimes.clear();
 
         synchronized (healthHistory) {
@@ -281,6 +405,10 @@ public class DatabaseMonitor {
             metricsReportTask.cancel();
         }
 
+        if (poolSampleTask != null) {
+            poolSampleTask.cancel();
+        }
+
         if (plugin.getConfig().getBoolean("database.monitoring.final-report-on-shutdown", true)) {
             generateMetricsReport();
         }
@@ -330,6 +458,19 @@ public class DatabaseMonitor {
         }
     }
 
+    public static class MaintenanceStats {
+        public final String task;
+        public long runs;
+        public long failures;
+        public long lastDuration;
+        public long maxDuration;
+        public long lastRun;
+
+        public MaintenanceStats(String task) {
+            this.task = task;
+        }
+    }
+
     public static class QueryStats {
         public final String queryType;
         public long totalExecutions;
@@ -0,0 +1,89 @@
+package com.leaf.leafwe.database;
+
+import com.leaf.leafwe.LeafWE;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the single DatabaseManager instance for the plugin. Consumers acquire it by name and release it
+ * when they shut down; the underlying connection / pool is closed exactly once, after the last holder
+ * has released it or when the plugin forces shutdown.
+ */
+public class DatabaseService {
+
+    private static final String OWNER = "LeafWE";
+
+    private final LeafWE plugin;
+    private final DatabaseManager databaseManager;
+    private final Set<String> holders = ConcurrentHashMap.newKeySet();
+
+    private CompletableFuture<Boolean> initializeFuture;
+    private CompletableFuture<Void> shutdownFuture;
+    private boolean closing = false;
+
+    public DatabaseService(LeafWE plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+        holders.add(OWNER);
+    }
+
+    /**
+     * Initializes the underlying manager once; later calls return the same future.
+     */
+    public synchronized CompletableFuture<Boolean> initialize() {
+        if (initializeFuture == null) {
+            initializeFuture = databaseManager.initialize();
+        }
+        return initializeFuture;
+    }
+
+    public synchronized DatabaseManager acquire(String holder) {
+        if (closing) {
+            throw new IllegalStateException("Database service is shutting down");
+        }
+        holders.add(holder);
+        return databaseManager;
+    }
+
+    public synchronized CompletableFuture<Void> release(String holder) {
+        if (!holders.remove(holder)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (closing && holders.isEmpty()) {
+            return close();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Releases the plugin's own reference. Consumers should have released theirs by now; any that
+     * have not are logged and the database is closed anyway so the pool never outlives the plugin.
+     */
+    public synchronized CompletableFuture<Void> shutdown() {
+        closing = true;
+        holders.remove(OWNER);
+
+        if (!holders.isEmpty()) {
+            plugin.getLogger().warning("Closing database with unreleased holders: " + String.join(", ", holders));
+            holders.clear();
+        }
+        return close();
+    }
+
+    private CompletableFuture<Void> close() {
+        if (shutdownFuture == null) {
+            shutdownFuture = databaseManager.shutdown();
+        }
+        return shutdownFuture;
+    }
+
+    public DatabaseManager getDatabaseManager() {
+        return databaseManager;
+    }
+
+    public int getHolderCount() {
+        return holders.size();
+    }
+}
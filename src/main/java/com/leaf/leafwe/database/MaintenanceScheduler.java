@@ -0,0 +1,129 @@
+package com.leaf.leafwe.database;
+
+import com.leaf.leafwe.LeafWE;
+import org.bukkit.Bukkit;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs database housekeeping (PRAGMA optimize, ANALYZE, WAL checkpoints, incremental vacuum, MySQL
+ * ANALYZE/OPTIMIZE TABLE) on the maintenance executor. A due task only starts while the server is keeping
+ * up (average MSPT below the limit) and the database queue is nearly empty; otherwise it waits for the next
+ * check. At most one task runs per check so the work is spread out.
+ */
+public class MaintenanceScheduler {
+
+    private final LeafWE plugin;
+    private final DatabaseManager databaseManager;
+    private final DatabaseMonitor monitor;
+    private final IntSupplier queueDepth;
+
+    private final Map<DatabaseManager.MaintenanceTask, Long> intervals = new EnumMap<>(DatabaseManager.MaintenanceTask.class);
+    private final Map<DatabaseManager.MaintenanceTask, Long> lastRun = new EnumMap<>(DatabaseManager.MaintenanceTask.class);
+
+    private final double maxMspt;
+    private final int maxQueueDepth;
+    private final long taskTimeoutMillis;
+
+    public MaintenanceScheduler(LeafWE plugin, DatabaseManager databaseManager, DatabaseMonitor monitor,
+                                IntSupplier queueDepth) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+        this.monitor = monitor;
+        this.queueDepth = queueDepth;
+
+        this.maxMspt = plugin.getConfig().getDouble("database.maintenance.max-mspt", 40.0);
+        this.maxQueueDepth = plugin.getConfig().getInt("database.maintenance.max-queue-depth", 5);
+        this.taskTimeoutMillis = plugin.getConfig().getLong("database.maintenance.task-timeout", 60) * 1000L;
+
+        long now = System.currentTimeMillis();
+        for (DatabaseManager.MaintenanceTask task : DatabaseManager.MaintenanceTask.values()) {
+            if (!databaseManager.supportsMaintenance(task)) {
+                continue;
+            }
+
+            String key = "database.maintenance.intervals." + task.name().toLowerCase().replace('_', '-');
+            long defaultInterval = defaultInterval(task);
+            // OPTIMIZE TABLE rebuilds InnoDB tables, so MySQL gets its own, much longer interval
+            if (task == DatabaseManager.MaintenanceTask.OPTIMIZE && "MySQL".equals(databaseManager.getDatabaseType())) {
+                key = "database.maintenance.intervals.optimize-table";
+                defaultInterval = 604800;
+            }
+            long interval = plugin.getConfig().getLong(key, defaultInterval);
+            if (interval > 0) {
+                intervals.put(task, interval * 1000L);
+                lastRun.put(task, now);
+            }
+        }
+    }
+
+    private static long defaultInterval(DatabaseManager.MaintenanceTask task) {
+        switch (task) {
+            case CHECKPOINT:
+                return 300;
+            case OPTIMIZE:
+                return 3600;
+            case INCREMENTAL_VACUUM:
+                return 21600;
+            case ANALYZE:
+                return 86400;
+            default:
+                return 0;
+        }
+    }
+
+    public void start(ScheduledExecutorService executor) {
+        if (!plugin.getConfig().getBoolean("database.maintenance.enabled", true) || intervals.isEmpty()) {
+            return;
+        }
+
+        long checkInterval = Math.max(10, plugin.getConfig().getLong("database.maintenance.check-interval", 60));
+        executor.scheduleWithFixedDelay(this::runDueTask, checkInterval, checkInterval, TimeUnit.SECONDS);
+    }
+
+    private void runDueTask() {
+        DatabaseManager.MaintenanceTask due = findMostOverdue();
+        if (due == null || !isQuiet()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean success;
+        try {
+            success = databaseManager.performMaintenance(due).get(taskTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            plugin.getLogger().warning("Database maintenance (" + due.name().toLowerCase() + ") error: " + e.getMessage());
+            success = false;
+        }
+
+        long duration = (System.nanoTime() - start) / 1_000_000;
+        lastRun.put(due, System.currentTimeMillis());
+        monitor.recordMaintenance(due.name().toLowerCase(), duration, success);
+    }
+
+    private DatabaseManager.MaintenanceTask findMostOverdue() {
+        long now = System.currentTimeMillis();
+        DatabaseManager.MaintenanceTask best = null;
+        long bestOverdue = 0;
+
+        for (Map.Entry<DatabaseManager.MaintenanceTask, Long> entry : intervals.entrySet()) {
+            long overdue = now - lastRun.get(entry.getKey()) - entry.getValue();
+            if (overdue >= 0 && (best == null || overdue > bestOverdue)) {
+                best = entry.getKey();
+                bestOverdue = overdue;
+            }
+        }
+        return best;
+    }
+
+    private boolean isQuiet() {
+        return Bukkit.getAverageTickTime() <= maxMspt && queueDepth.getAsInt() <= maxQueueDepth;
+    }
+}
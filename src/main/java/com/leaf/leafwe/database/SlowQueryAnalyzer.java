@@ -0,0 +1,133 @@
+package com.leaf.leafwe.database;
+
+import com.leaf.leafwe.LeafWE;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the most recent slow queries together with their SQL, bound parameters and query plan.
+ * Plans come from EXPLAIN QUERY PLAN / EXPLAIN, run by the backend on its own thread; each query type is
+ * explained at most once per cooldown so a slow hot path cannot flood the database with EXPLAINs.
+ */
+public class SlowQueryAnalyzer {
+
+    @FunctionalInterface
+    public interface PlanExplainer {
+        List<String> explain(String sql, Object[] params) throws SQLException;
+    }
+
+    private final LeafWE plugin;
+    private final PlanExplainer explainer;
+    private final long thresholdMillis;
+    private final long cooldownMillis;
+    private final boolean logSlowQueries;
+
+    private final SlowQuery[] ring;
+    private int next = 0;
+    private int size = 0;
+
+    private final ConcurrentHashMap<String, Long> lastExplained = new ConcurrentHashMap<>();
+    private final ExecutorService explainExecutor;
+
+    public SlowQueryAnalyzer(LeafWE plugin, PlanExplainer explainer) {
+        this.plugin = plugin;
+        this.explainer = explainer;
+        this.thresholdMillis = plugin.getConfig().getLong("database.performance.slow-query-threshold", 1000);
+        this.cooldownMillis = plugin.getConfig().getLong("database.performance.explain-cooldown", 300) * 1000L;
+        this.logSlowQueries = plugin.getConfig().getBoolean("database.performance.log-slow-queries", true);
+        this.ring = new SlowQuery[Math.max(1, plugin.getConfig().getInt("database.performance.slow-query-history", 20))];
+
+        // One thread and a short queue: EXPLAINs are diagnostics, dropping one is fine
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(16), r -> {
+                    Thread t = new Thread(r, "LeafWE-DB-Explain");
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    public boolean isSlow(long durationMillis) {
+        return durationMillis > thresholdMillis;
+    }
+
+    /**
+     * Records a finished query; does nothing unless it exceeded the slow-query threshold.
+     */
+    public void record(String queryType, String sql, long startNanos, Object... params) {
+        long durationMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        if (!isSlow(durationMillis)) {
+            return;
+        }
+
+        if (logSlowQueries) {
+            plugin.getLogger().warning("Slow query detected: " + queryType + " took " + durationMillis + "ms | SQL: " +
+                    sql.replaceAll("\\s+", " ").trim() + " | Params: " + Arrays.toString(params));
+        }
+
+        long now = System.currentTimeMillis();
+        boolean explain = lastExplained.compute(queryType, (key, last) ->
+                last == null || now - last >= cooldownMillis ? now : last) == now;
+
+        if (!explain) {
+            add(new SlowQuery(now, queryType, sql, params, durationMillis, null));
+            return;
+        }
+
+        explainExecutor.execute(() -> {
+            List<String> plan;
+            try {
+                plan = explainer.explain(sql, params);
+            } catch (SQLException | RuntimeException e) {
+                plan = List.of("EXPLAIN failed: " + e.getMessage());
+            }
+            add(new SlowQuery(now, queryType, sql, params, durationMillis, plan));
+        });
+    }
+
+    private synchronized void add(SlowQuery query) {
+        ring[next] = query;
+        next = (next + 1) % ring.length;
+        size = Math.min(size + 1, ring.length);
+    }
+
+    /**
+     * Newest first.
+     */
+    public synchronized List<SlowQuery> getRecent() {
+        List<SlowQuery> result = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            result.add(ring[(next - i + ring.length) % ring.length]);
+        }
+        return result;
+    }
+
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    public static class SlowQuery {
+        public final long timestamp;
+        public final String queryType;
+        public final String sql;
+        public final String params;
+        public final long durationMillis;
+        public final List<String> plan;
+
+        public SlowQuery(long timestamp, String queryType, String sql, Object[] params, long durationMillis, List<String> plan) {
+            this.timestamp = timestamp;
+            this.queryType = queryType;
+            this.sql = sql.replaceAll("\\s+", " ").trim();
+            this.params = Arrays.toString(params);
+            this.durationMillis = durationMillis;
+            this.plan = plan;
+        }
+    }
+}
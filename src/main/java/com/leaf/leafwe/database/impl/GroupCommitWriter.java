@@ -0,0 +1,241 @@
+package com.leaf.leafwe.database.impl;
+
+import com.leaf.leafwe.LeafWE;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Single writer thread for SQLite. Write intents are queued and committed together: the thread waits at most
+ * maxDelay after the first intent arrives (or until maxBatch intents are queued) and runs the whole batch in one
+ * transaction. Each intent gets its own savepoint, so a failing intent is rolled back alone and the rest still
+ * commit. Caller futures complete only after the commit; an optional onCommit hook runs right after it, before
+ * the lock is released, so in-memory state derived from the write never lags what other lock holders can see.
+ */
+class GroupCommitWriter {
+
+    @FunctionalInterface
+    interface WriteIntent<T> {
+        T apply(Connection connection) throws SQLException;
+    }
+
+    private final LeafWE plugin;
+    private final Supplier<Connection> connectionSupplier;
+    private final ReentrantLock lock;
+    private final long maxDelayNanos;
+    private final int maxBatch;
+
+    private final BlockingQueue<PendingWrite<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    // Written under submitLock, so nothing is queued after the writer thread has seen it turn false
+    private volatile boolean running = true;
+    private final Object submitLock = new Object();
+
+    private final AtomicLong committedBatches = new AtomicLong(0);
+    private final AtomicLong committedWrites = new AtomicLong(0);
+
+    GroupCommitWriter(LeafWE plugin, Supplier<Connection> connectionSupplier, ReentrantLock lock,
+                      long maxDelayMillis, int maxBatch) {
+        this.plugin = plugin;
+        this.connectionSupplier = connectionSupplier;
+        this.lock = lock;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxDelayMillis));
+        this.maxBatch = Math.max(1, maxBatch);
+
+        this.thread = new Thread(this::run, "LeafWE-SQLite-Writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    <T> CompletableFuture<T> submit(WriteIntent<T> intent) {
+        return submit(intent, null);
+    }
+
+    <T> CompletableFuture<T> submit(WriteIntent<T> intent, Consumer<T> onCommit) {
+        PendingWrite<T> write = new PendingWrite<>(intent, onCommit);
+        synchronized (submitLock) {
+            if (!running) {
+                write.future.completeExceptionally(new IllegalStateException("SQLite writer is shut down"));
+                return write.future;
+            }
+            queue.add(write);
+        }
+        return write.future;
+    }
+
+    private void run() {
+        List<PendingWrite<?>> batch = new ArrayList<>(maxBatch);
+
+        while (running || !queue.isEmpty()) {
+            boolean interrupted = false;
+            try {
+                PendingWrite<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+
+            if (!batch.isEmpty()) {
+                commitBatch(batch);
+                batch.clear();
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        PendingWrite<?> leftover;
+        while ((leftover = queue.poll()) != null) {
+            leftover.future.completeExceptionally(new IllegalStateException("SQLite writer stopped before commit"));
+        }
+    }
+
+    private void commitBatch(List<PendingWrite<?>> batch) {
+        SQLException batchFailure = null;
+
+        lock.lock();
+        try {
+            Connection connection = connectionSupplier.get();
+            try {
+                connection.setAutoCommit(false);
+                for (PendingWrite<?> write : batch) {
+                    write.apply(connection);
+                }
+                connection.commit();
+                for (PendingWrite<?> write : batch) {
+                    write.committed();
+                }
+            } catch (SQLException e) {
+                batchFailure = e;
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackEx) {
+                    plugin.getLogger().severe("Error during group commit rollback: " + rollbackEx.getMessage());
+                }
+            } finally {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    plugin.getLogger().severe("Error restoring auto-commit: " + e.getMessage());
+                }
+            }
+        } catch (RuntimeException e) {
+            batchFailure = new SQLException("SQLite connection unavailable", e);
+        } finally {
+            lock.unlock();
+        }
+
+        // Futures are completed outside the lock so callbacks never run while holding the connection
+        if (batchFailure != null) {
+            plugin.getLogger().severe("Group commit of " + batch.size() + " writes failed: " + batchFailure.getMessage());
+            for (PendingWrite<?> write : batch) {
+                write.future.completeExceptionally(batchFailure);
+            }
+            return;
+        }
+
+        committedBatches.incrementAndGet();
+        committedWrites.addAndGet(batch.size());
+        for (PendingWrite<?> write : batch) {
+            write.complete();
+        }
+    }
+
+    /**
+     * Stops accepting writes, commits what is already queued and waits for the writer thread.
+     */
+    void shutdown(long timeoutMillis) {
+        synchronized (submitLock) {
+            running = false;
+        }
+        try {
+            thread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            plugin.getLogger().warning("SQLite writer did not finish within " + timeoutMillis + "ms, " +
+                    queue.size() + " writes still queued");
+            thread.interrupt();
+        }
+    }
+
+    int getQueueDepth() {
+        return queue.size();
+    }
+
+    double getAverageBatchSize() {
+        long batches = committedBatches.get();
+        return batches > 0 ? (double) committedWrites.get() / batches : 0.0;
+    }
+
+    private static class PendingWrite<T> {
+        final WriteIntent<T> intent;
+        final Consumer<T> onCommit;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        T result;
+        Exception error;
+
+        PendingWrite(WriteIntent<T> intent, Consumer<T> onCommit) {
+            this.intent = intent;
+            this.onCommit = onCommit;
+        }
+
+        void apply(Connection connection) throws SQLException {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                result = intent.apply(connection);
+                connection.releaseSavepoint(savepoint);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback(savepoint);
+                connection.releaseSavepoint(savepoint);
+                error = e;
+            }
+        }
+
+        void committed() {
+            if (error != null || onCommit == null) {
+                return;
+            }
+            try {
+                onCommit.accept(result);
+            } catch (RuntimeException e) {
+                error = e;
+            }
+        }
+
+        void complete() {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
@@ -0,0 +1,548 @@
+package com.leaf.leafwe.database.impl;
+
+import com.leaf.leafwe.LeafWE;
+import com.leaf.leafwe.database.DatabaseManager;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps all data in concurrent maps. Used on servers that do not want a database file
+ * and as a zero-latency baseline when benchmarking the daily limit code.
+ * Data survives restarts only when snapshots are enabled.
+ */
+public class MemoryDatabaseManager implements DatabaseManager {
+
+    private static final int SNAPSHOT_MAGIC = 0x4C574D53; // "LWMS"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final LeafWE plugin;
+    private final File snapshotFile;
+    private final long snapshotInterval;
+    private volatile boolean initialized = false;
+
+    // date -> player -> usage, so per-day queries and cleanup only touch one partition
+    private final ConcurrentHashMap<String, ConcurrentHashMap<UUID, DailyUsageData>> dailyUsage = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, PlayerStats> playerStats = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, SessionData> lastSessions = new ConcurrentHashMap<>();
+    // date:player -> {blocks, operations, reserved at}; never snapshotted, and dropped after staleBefore like
+    // the SQL backends' reserved_at when a commit or release never arrives
+    private final Map<String, long[]> reservations = new HashMap<>();
+
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final Object snapshotLock = new Object();
+    private BukkitRunnable snapshotTask;
+
+    public MemoryDatabaseManager(LeafWE plugin) {
+        this.plugin = plugin;
+
+        boolean snapshotsEnabled = plugin.getConfig().getBoolean("database.memory.snapshot-enabled", false);
+        String file = plugin.getConfig().getString("database.memory.snapshot-file", "data/leafwe-memory.bin");
+        this.snapshotFile = snapshotsEnabled && file != null && !file.isBlank() ? new File(plugin.getDataFolder(), file) : null;
+        this.snapshotInterval = plugin.getConfig().getLong("database.memory.snapshot-interval", 300);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> initialize() {
+        return CompletableFuture.supplyAsync(() -> {
+            if (snapshotFile != null && snapshotFile.exists()) {
+                try {
+                    loadSnapshot();
+                } catch (IOException e) {
+                    plugin.getLogger().severe("Failed to load memory database snapshot: " + e.getMessage());
+                    return false;
+                }
+            }
+
+            initialized = true;
+            startSnapshotTask();
+            plugin.getLogger().info("Memory database initialized" +
+                    (snapshotFile != null ? " (snapshots: " + snapshotFile.getName() + ")" : " (no persistence)"));
+            return true;
+        });
+    }
+
+    private void startSnapshotTask() {
+        if (snapshotFile == null || snapshotInterval <= 0) {
+            return;
+        }
+
+        snapshotTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                if (dirty.get()) {
+                    writeSnapshotSafely();
+                }
+            }
+        };
+
+        long intervalTicks = snapshotInterval * 20L;
+        snapshotTask.runTaskTimerAsynchronously(plugin, intervalTicks, intervalTicks);
+    }
+
+    @Override
+    public CompletableFuture<Void> shutdown() {
+        if (snapshotTask != null) {
+            snapshotTask.cancel();
+            snapshotTask = null;
+        }
+
+        return CompletableFuture.runAsync(() -> {
+            if (snapshotFile != null && dirty.get()) {
+                writeSnapshotSafely();
+            }
+            initialized = false;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> testConnection() {
+        return CompletableFuture.completedFuture(initialized);
+    }
+
+    @Override
+    public CompletableFuture<DailyUsageData> getDailyUsage(UUID playerId, String date) {
+        Map<UUID, DailyUsageData> partition = dailyUsage.get(date);
+        DailyUsageData usage = partition != null ? partition.get(playerId) : null;
+
+        return CompletableFuture.completedFuture(usage != null ? usage :
+                new DailyUsageData(playerId, date, 0, 0, "default", System.currentTimeMillis()));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateDailyUsage(UUID playerId, String date, int blocksUsed, int operationsUsed, String group) {
+        putDailyUsage(new DailyUsageData(playerId, date, blocksUsed, operationsUsed, group, System.currentTimeMillis()));
+        return CompletableFuture.completedFuture(true);
+    }
+
+    private void putDailyUsage(DailyUsageData usage) {
+        dailyUsage.computeIfAbsent(usage.date, key -> new ConcurrentHashMap<>()).put(usage.playerId, usage);
+        dirty.set(true);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> resetDailyUsage(UUID playerId, String date) {
+        Map<UUID, DailyUsageData> partition = dailyUsage.get(date);
+        boolean removed = partition != null && partition.remove(playerId) != null;
+        synchronized (reservations) {
+            reservations.remove(date + ":" + playerId);
+        }
+        if (removed) {
+            dirty.set(true);
+        }
+        return CompletableFuture.completedFuture(removed);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> reserveDailyUsage(UUID playerId, String date, String group, int blocks, int maxBlocks,
+                                                        int maxOperations, long staleBefore) {
+        synchronized (reservations) {
+            DailyUsageData usage = getDailyUsage(playerId, date).join();
+            long[] reserved = reservations.get(date + ":" + playerId);
+            if (reserved == null || reserved[2] < staleBefore) {
+                // Nothing reserved since staleBefore; whatever is left was never committed or released
+                reserved = new long[3];
+            }
+
+            if ((maxBlocks >= 0 && usage.blocksUsed + reserved[0] + blocks > maxBlocks) ||
+                    (maxOperations >= 0 && usage.operationsUsed + reserved[1] + 1 > maxOperations)) {
+                return CompletableFuture.completedFuture(false);
+            }
+
+            reservations.put(date + ":" + playerId, new long[]{reserved[0] + blocks, reserved[1] + 1, System.currentTimeMillis()});
+            return CompletableFuture.completedFuture(true);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> commitDailyReservation(UUID playerId, String date, String group, int reservedBlocks, int usedBlocks) {
+        synchronized (reservations) {
+            releaseDailyReservation(playerId, date, reservedBlocks);
+            return batchIncrementDailyUsage(List.of(new DailyUsageData(playerId, date, usedBlocks, 1, group, System.currentTimeMillis())));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> releaseDailyReservation(UUID playerId, String date, int reservedBlocks) {
+        synchronized (reservations) {
+            String key = date + ":" + playerId;
+            long[] reserved = reservations.get(key);
+            if (reserved == null) {
+                return CompletableFuture.completedFuture(false);
+            }
+
+            long remainingBlocks = Math.max(0, reserved[0] - reservedBlocks);
+            long remainingOperations = Math.max(0, reserved[1] - 1);
+            if (remainingBlocks == 0 && remainingOperations == 0) {
+                reservations.remove(key);
+            } else {
+                reservations.put(key, new long[]{remainingBlocks, remainingOperations, reserved[2]});
+            }
+            return CompletableFuture.completedFuture(true);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> cleanupOldData(int daysToKeep) {
+        long cutoffTime = System.currentTimeMillis() - (daysToKeep * 24L * 60L * 60L * 1000L);
+        int deletedUsage = 0;
+        int deletedSessions = 0;
+
+        for (ConcurrentHashMap<UUID, DailyUsageData> partition : dailyUsage.values()) {
+            for (Map.Entry<UUID, DailyUsageData> entry : partition.entrySet()) {
+                if (entry.getValue().lastUpdated < cutoffTime && partition.remove(entry.getKey(), entry.getValue())) {
+                    deletedUsage++;
+                }
+            }
+        }
+        dailyUsage.values().removeIf(Map::isEmpty);
+        synchronized (reservations) {
+            reservations.values().removeIf(reserved -> reserved[2] < cutoffTime);
+        }
+
+        for (Map.Entry<UUID, SessionData> entry : lastSessions.entrySet()) {
+            if (entry.getValue().startTime < cutoffTime && lastSessions.remove(entry.getKey(), entry.getValue())) {
+                deletedSessions++;
+            }
+        }
+
+        if (deletedUsage > 0 || deletedSessions > 0) {
+            dirty.set(true);
+        }
+
+        plugin.getLogger().info("Cleanup completed: " + deletedUsage + " usage records, " +
+                deletedSessions + " session records deleted");
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<PlayerStats> getPlayerStats(UUID playerId) {
+        PlayerStats stats = playerStats.get(playerId);
+        if (stats == null) {
+            long now = System.currentTimeMillis();
+            stats = new PlayerStats(playerId, 0, 0, 0, "STONE", now, now);
+        }
+        return CompletableFuture.completedFuture(stats);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updatePlayerStats(UUID playerId, String statType, long value) {
+        return CompletableFuture.completedFuture(applyPlayerStat(playerId, statType, value, false));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> incrementPlayerStat(UUID playerId, String statType, long increment) {
+        return CompletableFuture.completedFuture(applyPlayerStat(playerId, statType, increment, true));
+    }
+
+    private boolean applyPlayerStat(UUID playerId, String statType, long value, boolean increment) {
+        if (!statType.equals("total_blocks_placed") && !statType.equals("total_operations") && !statType.equals("total_playtime")) {
+            plugin.getLogger().warning("Unknown player stat: " + statType);
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        playerStats.compute(playerId, (id, existing) -> {
+            long blocks = existing != null ? existing.totalBlocksPlaced : 0;
+            long operations = existing != null ? existing.totalOperations : 0;
+            long playtime = existing != null ? existing.totalPlayTime : 0;
+
+            switch (statType) {
+                case "total_blocks_placed" -> blocks = increment ? blocks + value : value;
+                case "total_operations" -> operations = increment ? operations + value : value;
+                default -> playtime = increment ? playtime + value : value;
+            }
+
+            return new PlayerStats(id, blocks, operations, playtime,
+                    existing != null ? existing.favoriteBlock : "STONE",
+                    existing != null ? existing.firstSeen : now, now);
+        });
+        dirty.set(true);
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> batchIncrementPlayerStats(List<PlayerStats> deltas) {
+        long now = System.currentTimeMillis();
+        for (PlayerStats delta : deltas) {
+            playerStats.merge(delta.playerId, delta, (existing, added) -> new PlayerStats(existing.playerId,
+                    existing.totalBlocksPlaced + added.totalBlocksPlaced,
+                    existing.totalOperations + added.totalOperations,
+                    existing.totalPlayTime, existing.favoriteBlock, existing.firstSeen, now));
+        }
+        dirty.set(true);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerStats>> getTopPlayers(String statType, int limit) {
+        Comparator<PlayerStats> order;
+        switch (statType) {
+            case "total_blocks_placed" -> order = Comparator.comparingLong(stats -> stats.totalBlocksPlaced);
+            case "total_operations" -> order = Comparator.comparingLong(stats -> stats.totalOperations);
+            default -> {
+                return CompletableFuture.failedFuture(new IllegalArgumentException("Unsupported leaderboard stat: " + statType));
+            }
+        }
+
+        // Min-heap of size limit instead of sorting every player
+        PriorityQueue<PlayerStats> top = new PriorityQueue<>(limit + 1, order);
+        for (PlayerStats stats : playerStats.values()) {
+            top.offer(stats);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<PlayerStats> results = new ArrayList<>(top);
+        results.sort(order.reversed());
+        return CompletableFuture.completedFuture(results);
+    }
+
+    /**
+     * Only the most recent session per player is kept; that is all the API exposes.
+     */
+    @Override
+    public CompletableFuture<Boolean> recordSession(UUID playerId, String sessionType, long duration) {
+        long now = System.currentTimeMillis();
+        lastSessions.put(playerId, new SessionData(playerId, sessionType, now - duration, now, duration));
+        dirty.set(true);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<SessionData> getLastSession(UUID playerId) {
+        return CompletableFuture.completedFuture(lastSessions.get(playerId));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> batchUpdateDailyUsage(List<DailyUsageData> usageList) {
+        for (DailyUsageData usage : usageList) {
+            putDailyUsage(usage);
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> batchIncrementDailyUsage(List<DailyUsageData> deltas) {
+        for (DailyUsageData delta : deltas) {
+            dailyUsage.computeIfAbsent(delta.date, key -> new ConcurrentHashMap<>()).merge(delta.playerId, delta,
+                    (existing, added) -> new DailyUsageData(existing.playerId, existing.date,
+                            existing.blocksUsed + added.blocksUsed, existing.operationsUsed + added.operationsUsed,
+                            added.playerGroup, added.lastUpdated));
+        }
+        dirty.set(true);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<List<DailyUsageData>> getAllDailyUsage(String date) {
+        Map<UUID, DailyUsageData> partition = dailyUsage.get(date);
+        return CompletableFuture.completedFuture(partition != null ? new ArrayList<>(partition.values()) : new ArrayList<>());
+    }
+
+    @Override
+    public CompletableFuture<Long> streamDailyUsage(String fromDate, String toDate, RowConsumer<DailyUsageData> consumer) {
+        return CompletableFuture.supplyAsync(() -> {
+            long rows = 0;
+            try {
+                for (Map.Entry<String, ConcurrentHashMap<UUID, DailyUsageData>> partition : dailyUsage.entrySet()) {
+                    String date = partition.getKey();
+                    if (date.compareTo(fromDate) < 0 || date.compareTo(toDate) > 0) {
+                        continue;
+                    }
+                    for (DailyUsageData usage : partition.getValue().values()) {
+                        consumer.accept(usage);
+                        rows++;
+                    }
+                }
+            } catch (IOException e) {
+                throw new java.util.concurrent.CompletionException(e);
+            }
+            return rows;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> streamPlayerStats(long seenSince, RowConsumer<PlayerStats> consumer) {
+        return CompletableFuture.supplyAsync(() -> {
+            long rows = 0;
+            try {
+                for (PlayerStats stats : playerStats.values()) {
+                    if (stats.lastSeen >= seenSince) {
+                        consumer.accept(stats);
+                        rows++;
+                    }
+                }
+            } catch (IOException e) {
+                throw new java.util.concurrent.CompletionException(e);
+            }
+            return rows;
+        });
+    }
+
+    @Override
+    public boolean supportsBackup() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Void> backupTo(File target) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                writeSnapshot(target);
+            } catch (IOException e) {
+                throw new java.util.concurrent.CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public String getDatabaseType() {
+        return "Memory";
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return "Memory: " + (snapshotFile != null ? snapshotFile.getName() : "no snapshots");
+    }
+
+    @Override
+    public CompletableFuture<DatabaseStats> getDatabaseStats() {
+        long dailyUsageCount = 0;
+        for (Map<UUID, DailyUsageData> partition : dailyUsage.values()) {
+            dailyUsageCount += partition.size();
+        }
+        long playerStatsCount = playerStats.size();
+        long sessionCount = lastSessions.size();
+
+        return CompletableFuture.completedFuture(new DatabaseStats(
+                "Memory",
+                dailyUsageCount + playerStatsCount + sessionCount,
+                dailyUsageCount,
+                playerStatsCount,
+                sessionCount,
+                0.0,
+                initialized ? "Connected" : "Disconnected"
+        ));
+    }
+
+    /**
+     * Writes the snapshot to a temporary file first so a crash never leaves a half-written snapshot behind.
+     */
+    private void writeSnapshotSafely() {
+        synchronized (snapshotLock) {
+            dirty.set(false);
+            try {
+                writeSnapshot(snapshotFile);
+            } catch (IOException e) {
+                dirty.set(true);
+                plugin.getLogger().warning("Failed to write memory database snapshot: " + e.getMessage());
+            }
+        }
+    }
+
+    public void writeSnapshot(File target) throws IOException {
+        File parent = target.getAbsoluteFile().getParentFile();
+        boolean ignored = parent.mkdirs();
+        File temp = new File(parent, target.getName() + ".tmp");
+
+        List<DailyUsageData> usage = new ArrayList<>();
+        dailyUsage.values().forEach(partition -> usage.addAll(partition.values()));
+        List<PlayerStats> stats = new ArrayList<>(playerStats.values());
+        List<SessionData> sessions = new ArrayList<>(lastSessions.values());
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+
+            out.writeInt(usage.size());
+            for (DailyUsageData data : usage) {
+                writeUuid(out, data.playerId);
+                out.writeUTF(data.date);
+                out.writeInt(data.blocksUsed);
+                out.writeInt(data.operationsUsed);
+                out.writeUTF(data.playerGroup != null ? data.playerGroup : "default");
+                out.writeLong(data.lastUpdated);
+            }
+
+            out.writeInt(stats.size());
+            for (PlayerStats data : stats) {
+                writeUuid(out, data.playerId);
+                out.writeLong(data.totalBlocksPlaced);
+                out.writeLong(data.totalOperations);
+                out.writeLong(data.totalPlayTime);
+                out.writeUTF(data.favoriteBlock != null ? data.favoriteBlock : "STONE");
+                out.writeLong(data.firstSeen);
+                out.writeLong(data.lastSeen);
+            }
+
+            out.writeInt(sessions.size());
+            for (SessionData data : sessions) {
+                writeUuid(out, data.playerId);
+                out.writeUTF(data.sessionType);
+                out.writeLong(data.startTime);
+                out.writeLong(data.endTime);
+                out.writeLong(data.duration);
+            }
+        }
+
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void loadSnapshot() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a LeafWE memory snapshot: " + snapshotFile.getName());
+            }
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported snapshot version: " + version);
+            }
+
+            int usageCount = in.readInt();
+            for (int i = 0; i < usageCount; i++) {
+                DailyUsageData data = new DailyUsageData(readUuid(in), in.readUTF(), in.readInt(), in.readInt(),
+                        in.readUTF(), in.readLong());
+                dailyUsage.computeIfAbsent(data.date, key -> new ConcurrentHashMap<>()).put(data.playerId, data);
+            }
+
+            int statsCount = in.readInt();
+            for (int i = 0; i < statsCount; i++) {
+                PlayerStats data = new PlayerStats(readUuid(in), in.readLong(), in.readLong(), in.readLong(),
+                        in.readUTF(), in.readLong(), in.readLong());
+                playerStats.put(data.playerId, data);
+            }
+
+            int sessionCount = in.readInt();
+            for (int i = 0; i < sessionCount; i++) {
+                SessionData data = new SessionData(readUuid(in), in.readUTF(), in.readLong(), in.readLong(), in.readLong());
+                lastSessions.put(data.playerId, data);
+            }
+
+            plugin.getLogger().info("Loaded memory database snapshot: " + usageCount + " usage records, " +
+                    statsCount + " player stats, " + sessionCount + " sessions");
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
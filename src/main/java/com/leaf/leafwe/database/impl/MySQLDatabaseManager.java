@@ -2,26 +2,62 @@ package com.leaf.leafwe.database.impl;
 
 import com.leaf.leafwe.LeafWE;
 import com.leaf.leafwe.database.DatabaseManager;
+import com.leaf.leafwe.database.SlowQueryAnalyzer;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class MySQLDatabaseManager implements DatabaseManager {
 
     private final LeafWE plugin;
     private HikariDataSource dataSource;
+    // Optional read replica; null when database.mysql.replica is disabled or unreachable
+    private volatile HikariDataSource replicaSource;
     private boolean initialized = false;
 
+    // Last write per player, so a player's own reads stay on the primary until the replica has caught up
+    private final ConcurrentHashMap<UUID, Long> recentWrites = new ConcurrentHashMap<>();
+    private final long readYourWritesMillis;
+    // After a failed replica checkout reads go straight to the primary until this time
+    private volatile long replicaRetryAt = 0;
+    private final long replicaCooldownMillis;
+    private final AtomicLong replicaReads = new AtomicLong(0);
+    private final AtomicLong primaryReads = new AtomicLong(0);
+
     private final AtomicLong totalQueries = new AtomicLong(0);
     private final AtomicLong totalQueryTime = new AtomicLong(0);
     private final AtomicLong slowQueries = new AtomicLong(0);
 
+    private final AtomicLong acquireCount = new AtomicLong(0);
+    private final AtomicLong acquireTimeNanos = new AtomicLong(0);
+    private final AtomicLong maxAcquireTimeNanos = new AtomicLong(0);
+    private final AtomicLong connectionTimeouts = new AtomicLong(0);
+
+    private final int batchSize;
+    private final SlowQueryAnalyzer slowQueryAnalyzer;
+
+    // Single-row form of the player_stats upsert, used when a slow batch is explained
+    private static final String PLAYER_STATS_UPSERT_SAMPLE =
+            "INSERT INTO player_stats (player_id, total_blocks_placed, total_operations) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE total_blocks_placed = total_blocks_placed + VALUES(total_blocks_placed), " +
+            "total_operations = total_operations + VALUES(total_operations), last_seen = CURRENT_TIMESTAMP";
+
+    // Change version of a daily_usage row: microseconds on the database server's clock, so every game server
+    // compares versions against the same clock. Set by every write that changes usage.
+    private static final String ROW_VERSION_NOW = "CAST(UNIX_TIMESTAMP(NOW(6)) * 1000000 AS SIGNED)";
+
     private static final String CREATE_DAILY_USAGE_TABLE = """
         CREATE TABLE IF NOT EXISTS daily_usage (
             player_id VARCHAR(36) NOT NULL,
@@ -29,9 +65,14 @@ public class MySQLDatabaseManager implements DatabaseManager {
             blocks_used INT DEFAULT 0,
             operations_used INT DEFAULT 0,
             player_group VARCHAR(32) DEFAULT 'default',
+            reserved_blocks INT NOT NULL DEFAULT 0,
+            reserved_operations INT NOT NULL DEFAULT 0,
+            reserved_at BIGINT NOT NULL DEFAULT 0,
+            row_version BIGINT NOT NULL DEFAULT 0,
             last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
             PRIMARY KEY (player_id, date),
             INDEX idx_date (date),
+            INDEX idx_date_version (date, row_version, player_id),
             INDEX idx_player (player_id),
             INDEX idx_last_updated (last_updated)
         ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
@@ -68,6 +109,10 @@ public class MySQLDatabaseManager implements DatabaseManager {
 
     public MySQLDatabaseManager(LeafWE plugin) {
         this.plugin = plugin;
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("database.async.batch-size", 100));
+        this.slowQueryAnalyzer = new SlowQueryAnalyzer(plugin, this::explainQuery);
+        this.readYourWritesMillis = plugin.getConfig().getLong("database.mysql.replica.read-your-writes-window", 5000);
+        this.replicaCooldownMillis = plugin.getConfig().getLong("database.mysql.replica.failure-cooldown", 30000);
     }
 
     @Override
@@ -85,6 +130,8 @@ public class MySQLDatabaseManager implements DatabaseManager {
 
                 optimizeDatabase();
 
+                setupReplicaPool();
+
                 initialized = true;
                 plugin.getLogger().info("MySQL database initialized successfully");
                 logConnectionInfo();
@@ -99,13 +146,61 @@ public class MySQLDatabaseManager implements DatabaseManager {
     }
 
     private void setupConnectionPool() {
+        HikariConfig config = createPoolConfig("database.mysql", "LeafWE-MySQL-Pool");
+        config.setMaximumPoolSize(plugin.getConfig().getInt("database.connection-pool.maximum-pool-size", 10));
+        config.setMinimumIdle(plugin.getConfig().getInt("database.connection-pool.minimum-idle", 2));
+        config.setMetricsTrackerFactory(new PoolMetricsTrackerFactory());
+
+        this.dataSource = new HikariDataSource(config);
+
+        plugin.getLogger().info("MySQL connection pool configured: " +
+                "max=" + config.getMaximumPoolSize() +
+                ", min=" + config.getMinimumIdle());
+    }
+
+    /**
+     * Second pool for reads against a replica. Settings not given under database.mysql.replica fall back to the
+     * primary's. If the replica cannot be reached at startup, reads simply stay on the primary.
+     */
+    private void setupReplicaPool() {
+        if (!plugin.getConfig().getBoolean("database.mysql.replica.enabled", false)) {
+            return;
+        }
+
+        HikariConfig config = createPoolConfig("database.mysql.replica", "LeafWE-MySQL-Replica-Pool");
+        config.setMaximumPoolSize(plugin.getConfig().getInt("database.mysql.replica.maximum-pool-size",
+                plugin.getConfig().getInt("database.connection-pool.maximum-pool-size", 10)));
+        config.setMinimumIdle(plugin.getConfig().getInt("database.mysql.replica.minimum-idle",
+                plugin.getConfig().getInt("database.connection-pool.minimum-idle", 2)));
+        config.setReadOnly(true);
+        // A read waits this long at most before falling back to the primary, not the primary's connection-timeout
+        config.setConnectionTimeout(Math.max(250, plugin.getConfig().getLong("database.mysql.replica.connection-timeout", 1000)));
+        // Don't fail plugin startup on a missing replica
+        config.setInitializationFailTimeout(-1);
+
+        HikariDataSource replica = new HikariDataSource(config);
+        try (Connection conn = replica.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("SELECT 1");
+        } catch (SQLException e) {
+            plugin.getLogger().warning("MySQL replica unavailable, all reads will use the primary: " + e.getMessage());
+            replica.close();
+            return;
+        }
+
+        this.replicaSource = replica;
+        plugin.getLogger().info("MySQL replica pool configured: " + config.getJdbcUrl() +
+                " (max=" + config.getMaximumPoolSize() + ", read-your-writes window=" + readYourWritesMillis + "ms)");
+    }
+
+    private HikariConfig createPoolConfig(String section, String poolName) {
         HikariConfig config = new HikariConfig();
 
-        String host = plugin.getConfig().getString("database.mysql.host", "localhost");
-        int port = plugin.getConfig().getInt("database.mysql.port", 3306);
-        String database = plugin.getConfig().getString("database.mysql.database", "leafwe");
-        String username = plugin.getConfig().getString("database.mysql.username", "leafwe_user");
-        String password = plugin.getConfig().getString("database.mysql.password", "");
+        String host = setting(section, "host", "localhost");
+        int port = plugin.getConfig().getInt(section + ".port", plugin.getConfig().getInt("database.mysql.port", 3306));
+        String database = setting(section, "database", "leafwe");
+        String username = setting(section, "username", "leafwe_user");
+        String password = setting(section, "password", "");
 
         String jdbcUrl = String.format("jdbc:mysql://%s:%d/%s", host, port, database);
         config.setJdbcUrl(jdbcUrl);
@@ -113,8 +208,6 @@ public class MySQLDatabaseManager implements DatabaseManager {
         config.setPassword(password);
         config.setDriverClassName("com.mysql.cj.jdbc.Driver");
 
-        config.setMaximumPoolSize(plugin.getConfig().getInt("database.connection-pool.maximum-pool-size", 10));
-        config.setMinimumIdle(plugin.getConfig().getInt("database.connection-pool.minimum-idle", 2));
         config.setConnectionTimeout(plugin.getConfig().getLong("database.connection-pool.connection-timeout", 30000));
         config.setIdleTimeout(plugin.getConfig().getLong("database.connection-pool.idle-timeout", 600000));
         config.setMaxLifetime(plugin.getConfig().getLong("database.connection-pool.max-lifetime", 1800000));
@@ -140,15 +233,61 @@ public class MySQLDatabaseManager implements DatabaseManager {
         config.addDataSourceProperty("elideSetAutoCommits", plugin.getConfig().getBoolean("database.mysql.properties.elideSetAutoCommits", true));
         config.addDataSourceProperty("maintainTimeStats", plugin.getConfig().getBoolean("database.mysql.properties.maintainTimeStats", false));
 
-        config.setPoolName("LeafWE-MySQL-Pool");
-
+        config.setPoolName(poolName);
         config.setConnectionTestQuery("SELECT 1");
+        return config;
+    }
 
-        this.dataSource = new HikariDataSource(config);
+    private String setting(String section, String key, String def) {
+        return plugin.getConfig().getString(section + "." + key, plugin.getConfig().getString("database.mysql." + key, def));
+    }
 
-        plugin.getLogger().info("MySQL connection pool configured: " +
-                "max=" + config.getMaximumPoolSize() +
-                ", min=" + config.getMinimumIdle());
+    /**
+     * Connection for a read. Goes to the replica unless there is none, or the player (if given) wrote within
+     * the read-your-writes window. A replica that fails to hand out a connection falls back to the primary and
+     * is skipped for the failure cooldown, so reads do not each wait out its connection timeout.
+     */
+    private Connection getReadConnection(UUID playerId) throws SQLException {
+        HikariDataSource replica = replicaSource;
+        if (replica != null && !replica.isClosed() && System.currentTimeMillis() >= replicaRetryAt
+                && (playerId == null || !hasRecentWrite(playerId))) {
+            try {
+                Connection conn = replica.getConnection();
+                replicaReads.incrementAndGet();
+                return conn;
+            } catch (SQLException e) {
+                replicaRetryAt = System.currentTimeMillis() + replicaCooldownMillis;
+                plugin.getLogger().warning("MySQL replica read failed, using primary for the next " +
+                        replicaCooldownMillis + "ms: " + e.getMessage());
+            }
+        }
+        primaryReads.incrementAndGet();
+        return dataSource.getConnection();
+    }
+
+    private boolean hasRecentWrite(UUID playerId) {
+        Long lastWrite = recentWrites.get(playerId);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - lastWrite < readYourWritesMillis) {
+            return true;
+        }
+        recentWrites.remove(playerId, lastWrite);
+        return false;
+    }
+
+    private void markWritten(UUID playerId) {
+        if (replicaSource == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        recentWrites.put(playerId, now);
+
+        // Players who never read again would otherwise stay in the map
+        if (recentWrites.size() > 4096) {
+            recentWrites.values().removeIf(lastWrite -> now - lastWrite >= readYourWritesMillis);
+        }
     }
 
     private boolean testConnectionSync() {
@@ -170,10 +309,41 @@ public class MySQLDatabaseManager implements DatabaseManager {
             stmt.execute(CREATE_PLAYER_STATS_TABLE);
             stmt.execute(CREATE_SESSIONS_TABLE);
 
+            // Tables created by older versions
+            ensureColumn(conn, "daily_usage", "reserved_blocks", "INT NOT NULL DEFAULT 0");
+            ensureColumn(conn, "daily_usage", "reserved_operations", "INT NOT NULL DEFAULT 0");
+            ensureColumn(conn, "daily_usage", "reserved_at", "BIGINT NOT NULL DEFAULT 0");
+            if (ensureColumn(conn, "daily_usage", "row_version", "BIGINT NOT NULL DEFAULT 0")) {
+                stmt.execute("CREATE INDEX idx_date_version ON daily_usage (date, row_version, player_id)");
+            }
+
             plugin.getLogger().info("MySQL tables created successfully");
         }
     }
 
+    /**
+     * Adds the column if the table does not have it yet. Returns true when it was added.
+     */
+    private boolean ensureColumn(Connection conn, String table, String column, String definition) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, table);
+            stmt.setString(2, column);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return false;
+                }
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+            plugin.getLogger().info("Added column " + table + "." + column);
+        }
+        return true;
+    }
+
     private void optimizeDatabase() {
         CompletableFuture.runAsync(() -> {
             try (Connection conn = dataSource.getConnection();
@@ -221,6 +391,13 @@ public class MySQLDatabaseManager implements DatabaseManager {
     @Override
     public CompletableFuture<Void> shutdown() {
         return CompletableFuture.runAsync(() -> {
+            slowQueryAnalyzer.shutdown();
+            HikariDataSource replica = replicaSource;
+            replicaSource = null;
+            if (replica != null && !replica.isClosed()) {
+                replica.close();
+                plugin.getLogger().info("MySQL replica pool closed");
+            }
             try {
                 if (dataSource != null && !dataSource.isClosed()) {
                     var poolMBean = dataSource.getHikariPoolMXBean();
@@ -265,7 +442,7 @@ public class MySQLDatabaseManager implements DatabaseManager {
             String sql = "SELECT * FROM daily_usage WHERE player_id = ? AND date = ?";
             long startTime = System.nanoTime();
 
-            try (Connection conn = dataSource.getConnection();
+            try (Connection conn = getReadConnection(playerId);
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
 
                 stmt.setString(1, playerId.toString());
@@ -274,7 +451,7 @@ public class MySQLDatabaseManager implements DatabaseManager {
                 logQuery(sql, playerId.toString(), date);
 
                 try (ResultSet rs = stmt.executeQuery()) {
-                    recordQueryMetrics(startTime);
+                    recordQueryMetrics(startTime, "getDailyUsage", sql, playerId.toString(), date);
 
                     if (rs.next()) {
                         return new DailyUsageData(
@@ -300,14 +477,15 @@ public class MySQLDatabaseManager implements DatabaseManager {
     public CompletableFuture<Boolean> updateDailyUsage(UUID playerId, String date, int blocksUsed, int operationsUsed, String group) {
         return CompletableFuture.supplyAsync(() -> {
             String sql = """
-                INSERT INTO daily_usage (player_id, date, blocks_used, operations_used, player_group) 
-                VALUES (?, ?, ?, ?, ?) 
+                INSERT INTO daily_usage (player_id, date, blocks_used, operations_used, player_group, row_version) 
+                VALUES (?, ?, ?, ?, ?, %s) 
                 ON DUPLICATE KEY UPDATE 
                 blocks_used = VALUES(blocks_used), 
                 operations_used = VALUES(operations_used), 
                 player_group = VALUES(player_group),
+                row_version = VALUES(row_version),
                 last_updated = CURRENT_TIMESTAMP
-                """;
+                """.formatted(ROW_VERSION_NOW);
 
             long startTime = System.nanoTime();
 
@@ -323,7 +501,8 @@ public class MySQLDatabaseManager implements DatabaseManager {
                 logQuery(sql, playerId.toString(), date, String.valueOf(blocksUsed), String.valueOf(operationsUsed), group);
 
                 int affected = stmt.executeUpdate();
-                recordQueryMetrics(startTime);
+                markWritten(playerId);
+                recordQueryMetrics(startTime, "updateDailyUsage", sql, playerId.toString(), date, blocksUsed, operationsUsed, group);
 
                 return affected > 0;
 
@@ -337,7 +516,13 @@ public class MySQLDatabaseManager implements DatabaseManager {
     @Override
     public CompletableFuture<Boolean> resetDailyUsage(UUID playerId, String date) {
         return CompletableFuture.supplyAsync(() -> {
-            String sql = "DELETE FROM daily_usage WHERE player_id = ? AND date = ?";
+            // An update rather than a DELETE, so the new row version tells other servers' coherence polls about it
+            String sql = """
+                UPDATE daily_usage
+                SET blocks_used = 0, operations_used = 0, reserved_blocks = 0, reserved_operations = 0,
+                row_version = %s, last_updated = CURRENT_TIMESTAMP
+                WHERE player_id = ? AND date = ?
+                """.formatted(ROW_VERSION_NOW);
             long startTime = System.nanoTime();
 
             try (Connection conn = dataSource.getConnection();
@@ -349,7 +534,8 @@ public class MySQLDatabaseManager implements DatabaseManager {
                 logQuery(sql, playerId.toString(), date);
 
                 int affected = stmt.executeUpdate();
-                recordQueryMetrics(startTime);
+                markWritten(playerId);
+                recordQueryMetrics(startTime, "resetDailyUsage", sql, playerId.toString(), date);
 
                 return affected > 0;
 
@@ -360,6 +546,190 @@ public class MySQLDatabaseManager implements DatabaseManager {
         });
     }
 
+    @Override
+    public CompletableFuture<Boolean> reserveDailyUsage(UUID playerId, String date, String group, int blocks, int maxBlocks,
+                                                        int maxOperations, long staleBefore) {
+        return CompletableFuture.supplyAsync(() -> {
+            String insertSql = "INSERT IGNORE INTO daily_usage (player_id, date, player_group) VALUES (?, ?, ?)";
+            String sql = """
+                UPDATE daily_usage
+                SET reserved_blocks = (CASE WHEN reserved_at < ? THEN 0 ELSE reserved_blocks END) + ?,
+                reserved_operations = (CASE WHEN reserved_at < ? THEN 0 ELSE reserved_operations END) + 1,
+                reserved_at = ?
+                WHERE player_id = ? AND date = ?
+                AND (? < 0 OR blocks_used + (CASE WHEN reserved_at < ? THEN 0 ELSE reserved_blocks END) + ? <= ?)
+                AND (? < 0 OR operations_used + (CASE WHEN reserved_at < ? THEN 0 ELSE reserved_operations END) + 1 <= ?)
+                """;
+            long startTime = System.nanoTime();
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement insert = conn.prepareStatement(insertSql);
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                insert.setString(1, playerId.toString());
+                insert.setString(2, date);
+                insert.setString(3, group);
+                insert.executeUpdate();
+
+                // MySQL assigns left to right, so reserved_at has to stay last for the CASEs to see the old value
+                long now = System.currentTimeMillis();
+                stmt.setLong(1, staleBefore);
+                stmt.setInt(2, blocks);
+                stmt.setLong(3, staleBefore);
+                stmt.setLong(4, now);
+                stmt.setString(5, playerId.toString());
+                stmt.setString(6, date);
+                stmt.setInt(7, maxBlocks);
+                stmt.setLong(8, staleBefore);
+                stmt.setInt(9, blocks);
+                stmt.setInt(10, maxBlocks);
+                stmt.setInt(11, maxOperations);
+                stmt.setLong(12, staleBefore);
+                stmt.setInt(13, maxOperations);
+
+                logQuery(sql, playerId.toString(), date, String.valueOf(blocks));
+
+                int affected = stmt.executeUpdate();
+                markWritten(playerId);
+                recordQueryMetrics(startTime, "reserveDailyUsage", sql, staleBefore, blocks, staleBefore, now,
+                        playerId.toString(), date, maxBlocks, staleBefore, blocks, maxBlocks, maxOperations, staleBefore, maxOperations);
+
+                return affected > 0;
+            } catch (SQLException e) {
+                throw new java.util.concurrent.CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> commitDailyReservation(UUID playerId, String date, String group, int reservedBlocks, int usedBlocks) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = """
+                INSERT INTO daily_usage (player_id, date, blocks_used, operations_used, player_group, row_version)
+                VALUES (?, ?, ?, 1, ?, %s)
+                ON DUPLICATE KEY UPDATE
+                blocks_used = blocks_used + VALUES(blocks_used),
+                operations_used = operations_used + 1,
+                reserved_blocks = GREATEST(reserved_blocks - ?, 0),
+                reserved_operations = GREATEST(reserved_operations - 1, 0),
+                player_group = VALUES(player_group),
+                row_version = VALUES(row_version),
+                last_updated = CURRENT_TIMESTAMP
+                """.formatted(ROW_VERSION_NOW);
+            long startTime = System.nanoTime();
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setString(1, playerId.toString());
+                stmt.setString(2, date);
+                stmt.setInt(3, usedBlocks);
+                stmt.setString(4, group);
+                stmt.setInt(5, reservedBlocks);
+
+                logQuery(sql, playerId.toString(), date, String.valueOf(usedBlocks), group, String.valueOf(reservedBlocks));
+
+                stmt.executeUpdate();
+                markWritten(playerId);
+                recordQueryMetrics(startTime, "commitDailyReservation", sql, playerId.toString(), date, usedBlocks, group, reservedBlocks);
+                return true;
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Error committing daily usage reservation: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> releaseDailyReservation(UUID playerId, String date, int reservedBlocks) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = """
+                UPDATE daily_usage
+                SET reserved_blocks = GREATEST(reserved_blocks - ?, 0), reserved_operations = GREATEST(reserved_operations - 1, 0)
+                WHERE player_id = ? AND date = ?
+                """;
+            long startTime = System.nanoTime();
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, reservedBlocks);
+                stmt.setString(2, playerId.toString());
+                stmt.setString(3, date);
+
+                logQuery(sql, String.valueOf(reservedBlocks), playerId.toString(), date);
+
+                int affected = stmt.executeUpdate();
+                markWritten(playerId);
+                recordQueryMetrics(startTime, "releaseDailyReservation", sql, reservedBlocks, playerId.toString(), date);
+                return affected > 0;
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Error releasing daily usage reservation: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public boolean supportsChangeTracking() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<UsageChanges> getDailyUsageChangedSince(String date, long sinceVersion, String afterPlayerId, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            // Always the primary: a lagging replica could let the cursor move past rows it has not seen yet
+            try (Connection conn = dataSource.getConnection()) {
+                if (sinceVersion < 0) {
+                    try (Statement stmt = conn.createStatement();
+                         ResultSet rs = stmt.executeQuery("SELECT " + ROW_VERSION_NOW)) {
+                        rs.next();
+                        return new UsageChanges(new ArrayList<>(), rs.getLong(1), "", false);
+                    }
+                }
+
+                String sql = """
+                    SELECT player_id, date, blocks_used, operations_used, player_group, last_updated, row_version
+                    FROM daily_usage
+                    WHERE date = ? AND (row_version > ? OR (row_version = ? AND player_id > ?))
+                    ORDER BY row_version, player_id LIMIT ?
+                    """;
+                long startTime = System.nanoTime();
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, date);
+                    stmt.setLong(2, sinceVersion);
+                    stmt.setLong(3, sinceVersion);
+                    stmt.setString(4, afterPlayerId);
+                    stmt.setInt(5, limit);
+
+                    List<DailyUsageData> rows = new ArrayList<>();
+                    long latestVersion = sinceVersion;
+                    String latestPlayerId = afterPlayerId;
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        recordQueryMetrics(startTime, "getDailyUsageChangedSince", sql, date, sinceVersion, sinceVersion, afterPlayerId, limit);
+
+                        while (rs.next()) {
+                            rows.add(new DailyUsageData(
+                                    UUID.fromString(rs.getString("player_id")),
+                                    rs.getString("date"),
+                                    rs.getInt("blocks_used"),
+                                    rs.getInt("operations_used"),
+                                    rs.getString("player_group"),
+                                    rs.getTimestamp("last_updated").getTime()
+                            ));
+                            latestVersion = rs.getLong("row_version");
+                            latestPlayerId = rs.getString("player_id");
+                        }
+                    }
+                    return new UsageChanges(rows, latestVersion, latestPlayerId, rows.size() >= limit);
+                }
+            } catch (SQLException e) {
+                throw new java.util.concurrent.CompletionException(e);
+            }
+        });
+    }
+
     @Override
     public CompletableFuture<Boolean> cleanupOldData(int daysToKeep) {
         return CompletableFuture.supplyAsync(() -> {
@@ -401,13 +771,13 @@ public class MySQLDatabaseManager implements DatabaseManager {
             String sql = "SELECT * FROM player_stats WHERE player_id = ?";
             long startTime = System.nanoTime();
 
-            try (Connection conn = dataSource.getConnection();
+            try (Connection conn = getReadConnection(playerId);
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
 
                 stmt.setString(1, playerId.toString());
 
                 try (ResultSet rs = stmt.executeQuery()) {
-                    recordQueryMetrics(startTime);
+                    recordQueryMetrics(startTime, "getPlayerStats", sql, playerId.toString());
 
                     if (rs.next()) {
                         return new PlayerStats(
@@ -442,6 +812,98 @@ public class MySQLDatabaseManager implements DatabaseManager {
         return CompletableFuture.completedFuture(true);
     }
 
+    @Override
+    public CompletableFuture<Boolean> batchIncrementPlayerStats(List<PlayerStats> deltas) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (deltas.isEmpty()) {
+                return true;
+            }
+
+            long startTime = System.nanoTime();
+
+            try (Connection conn = dataSource.getConnection()) {
+                conn.setAutoCommit(false);
+
+                try {
+                    for (int from = 0; from < deltas.size(); from += batchSize) {
+                        List<PlayerStats> chunk = deltas.subList(from, Math.min(deltas.size(), from + batchSize));
+
+                        StringBuilder sql = new StringBuilder(
+                                "INSERT INTO player_stats (player_id, total_blocks_placed, total_operations) VALUES ");
+                        for (int i = 0; i < chunk.size(); i++) {
+                            sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+                        }
+                        sql.append(" ON DUPLICATE KEY UPDATE total_blocks_placed = total_blocks_placed + VALUES(total_blocks_placed), " +
+                                "total_operations = total_operations + VALUES(total_operations), last_seen = CURRENT_TIMESTAMP");
+
+                        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                            int index = 1;
+                            for (PlayerStats delta : chunk) {
+                                stmt.setString(index++, delta.playerId.toString());
+                                stmt.setLong(index++, delta.totalBlocksPlaced);
+                                stmt.setLong(index++, delta.totalOperations);
+                            }
+                            stmt.executeUpdate();
+                        }
+                    }
+
+                    conn.commit();
+                    deltas.forEach(delta -> markWritten(delta.playerId));
+                    recordQueryMetrics(startTime, "batchIncrementPlayerStats", PLAYER_STATS_UPSERT_SAMPLE, deltas.get(0).playerId.toString(), deltas.get(0).totalBlocksPlaced, deltas.get(0).totalOperations);
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Error in MySQL player stats batch: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerStats>> getTopPlayers(String statType, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!statType.equals("total_blocks_placed") && !statType.equals("total_operations")) {
+                throw new IllegalArgumentException("Unsupported leaderboard stat: " + statType);
+            }
+
+            // idx_total_blocks / idx_total_operations let MySQL read the first rows of the index instead of sorting
+            String sql = "SELECT * FROM player_stats ORDER BY " + statType + " DESC LIMIT ?";
+            List<PlayerStats> results = new ArrayList<>();
+            long startTime = System.nanoTime();
+
+            try (Connection conn = getReadConnection(null);
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, limit);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    recordQueryMetrics(startTime, "getTopPlayers", sql, limit);
+
+                    while (rs.next()) {
+                        results.add(new PlayerStats(
+                                UUID.fromString(rs.getString("player_id")),
+                                rs.getLong("total_blocks_placed"),
+                                rs.getLong("total_operations"),
+                                rs.getLong("total_playtime"),
+                                rs.getString("favorite_block"),
+                                rs.getTimestamp("first_seen").getTime(),
+                                rs.getTimestamp("last_seen").getTime()
+                        ));
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Error getting top players: " + e.getMessage());
+            }
+
+            return results;
+        });
+    }
+
     @Override
     public CompletableFuture<Boolean> recordSession(UUID playerId, String sessionType, long duration) {
         return CompletableFuture.completedFuture(true);
@@ -455,43 +917,94 @@ public class MySQLDatabaseManager implements DatabaseManager {
     @Override
     public CompletableFuture<Boolean> batchUpdateDailyUsage(List<DailyUsageData> usageList) {
         return CompletableFuture.supplyAsync(() -> {
-            String sql = """
-                INSERT INTO daily_usage (player_id, date, blocks_used, operations_used, player_group) 
-                VALUES (?, ?, ?, ?, ?) 
-                ON DUPLICATE KEY UPDATE 
-                blocks_used = VALUES(blocks_used), 
-                operations_used = VALUES(operations_used), 
-                player_group = VALUES(player_group)
-                """;
+            if (usageList.isEmpty()) {
+                return true;
+            }
 
-            long startTime = System.nanoTime();
+            try {
+                writeDailyUsageRows(usageList, false);
+                plugin.getLogger().info("MySQL batch update completed: " + usageList.size() + " records processed");
+                return true;
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Error in MySQL batch update: " + e.getMessage());
+                return false;
+            }
+        });
+    }
 
-            try (Connection conn = dataSource.getConnection()) {
-                conn.setAutoCommit(false);
+    @Override
+    public CompletableFuture<Boolean> batchIncrementDailyUsage(List<DailyUsageData> deltas) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (deltas.isEmpty()) {
+                return true;
+            }
 
-                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                    for (DailyUsageData usage : usageList) {
-                        stmt.setString(1, usage.playerId.toString());
-                        stmt.setString(2, usage.date);
-                        stmt.setInt(3, usage.blocksUsed);
-                        stmt.setInt(4, usage.operationsUsed);
-                        stmt.setString(5, usage.playerGroup);
-                        stmt.addBatch();
-                    }
+            try {
+                writeDailyUsageRows(deltas, true);
+                return true;
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Error in MySQL batch increment: " + e.getMessage());
+                return false;
+            }
+        });
+    }
 
-                    int[] results = stmt.executeBatch();
-                    conn.commit();
+    /**
+     * Writes the rows as multi-row INSERT ... ON DUPLICATE KEY UPDATE statements of up to batch-size rows,
+     * all in one transaction. With increment=true the values are added to the stored counts.
+     */
+    private void writeDailyUsageRows(List<DailyUsageData> rows, boolean increment) throws SQLException {
+        long startTime = System.nanoTime();
 
-                    recordQueryMetrics(startTime);
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
 
-                    plugin.getLogger().info("MySQL batch update completed: " + results.length + " records processed");
-                    return true;
+            try {
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    List<DailyUsageData> chunk = rows.subList(from, Math.min(rows.size(), from + batchSize));
+
+                    try (PreparedStatement stmt = conn.prepareStatement(buildDailyUsageUpsert(chunk.size(), increment))) {
+                        int index = 1;
+                        for (DailyUsageData usage : chunk) {
+                            stmt.setString(index++, usage.playerId.toString());
+                            stmt.setString(index++, usage.date);
+                            stmt.setInt(index++, usage.blocksUsed);
+                            stmt.setInt(index++, usage.operationsUsed);
+                            stmt.setString(index++, usage.playerGroup);
+                        }
+                        stmt.executeUpdate();
+                    }
                 }
+
+                conn.commit();
+                rows.forEach(usage -> markWritten(usage.playerId));
+                recordQueryMetrics(startTime, increment ? "batchIncrementDailyUsage" : "batchUpdateDailyUsage", buildDailyUsageUpsert(1, increment),
+                        rows.get(0).playerId.toString(), rows.get(0).date, rows.get(0).blocksUsed, rows.get(0).operationsUsed, rows.get(0).playerGroup);
             } catch (SQLException e) {
-                plugin.getLogger().severe("Error in MySQL batch update: " + e.getMessage());
-                return false;
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
-        });
+        }
+    }
+
+    private String buildDailyUsageUpsert(int rowCount, boolean increment) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO daily_usage (player_id, date, blocks_used, operations_used, player_group, row_version) VALUES ");
+        for (int i = 0; i < rowCount; i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ").append(ROW_VERSION_NOW).append(")");
+        }
+
+        if (increment) {
+            sql.append(" ON DUPLICATE KEY UPDATE blocks_used = blocks_used + VALUES(blocks_used), " +
+                    "operations_used = operations_used + VALUES(operations_used), ");
+        } else {
+            sql.append(" ON DUPLICATE KEY UPDATE blocks_used = VALUES(blocks_used), " +
+                    "operations_used = VALUES(operations_used), ");
+        }
+        sql.append("player_group = VALUES(player_group), row_version = VALUES(row_version), last_updated = CURRENT_TIMESTAMP");
+        return sql.toString();
     }
 
     @Override
@@ -501,13 +1014,13 @@ public class MySQLDatabaseManager implements DatabaseManager {
             List<DailyUsageData> results = new ArrayList<>();
             long startTime = System.nanoTime();
 
-            try (Connection conn = dataSource.getConnection();
+            try (Connection conn = getReadConnection(null);
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
 
                 stmt.setString(1, date);
 
                 try (ResultSet rs = stmt.executeQuery()) {
-                    recordQueryMetrics(startTime);
+                    recordQueryMetrics(startTime, "getAllDailyUsage", sql, date);
 
                     while (rs.next()) {
                         results.add(new DailyUsageData(
@@ -528,6 +1041,80 @@ public class MySQLDatabaseManager implements DatabaseManager {
         });
     }
 
+    @Override
+    public CompletableFuture<Long> streamDailyUsage(String fromDate, String toDate, RowConsumer<DailyUsageData> consumer) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "SELECT * FROM daily_usage WHERE date >= ? AND date <= ?";
+
+            try (Connection conn = getReadConnection(null);
+                 PreparedStatement stmt = createStreamingStatement(conn, sql)) {
+
+                stmt.setString(1, fromDate);
+                stmt.setString(2, toDate);
+
+                long rows = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(new DailyUsageData(
+                                UUID.fromString(rs.getString("player_id")),
+                                rs.getString("date"),
+                                rs.getInt("blocks_used"),
+                                rs.getInt("operations_used"),
+                                rs.getString("player_group"),
+                                rs.getTimestamp("last_updated").getTime()
+                        ));
+                        rows++;
+                    }
+                }
+                return rows;
+            } catch (SQLException | java.io.IOException e) {
+                throw new java.util.concurrent.CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> streamPlayerStats(long seenSince, RowConsumer<PlayerStats> consumer) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "SELECT * FROM player_stats WHERE last_seen >= ?";
+
+            try (Connection conn = getReadConnection(null);
+                 PreparedStatement stmt = createStreamingStatement(conn, sql)) {
+
+                stmt.setTimestamp(1, new Timestamp(seenSince));
+
+                long rows = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(new PlayerStats(
+                                UUID.fromString(rs.getString("player_id")),
+                                rs.getLong("total_blocks_placed"),
+                                rs.getLong("total_operations"),
+                                rs.getLong("total_playtime"),
+                                rs.getString("favorite_block"),
+                                rs.getTimestamp("first_seen").getTime(),
+                                rs.getTimestamp("last_seen").getTime()
+                        ));
+                        rows++;
+                    }
+                }
+                return rows;
+            } catch (SQLException | java.io.IOException e) {
+                throw new java.util.concurrent.CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Forward-only, read-only statement with fetch size MIN_VALUE: Connector/J then streams
+     * rows one by one instead of buffering the whole result set in memory.
+     */
+    private PreparedStatement createStreamingStatement(Connection conn, String sql) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(Integer.MIN_VALUE);
+        return stmt;
+    }
+
     @Override
     public String getDatabaseType() {
         return "MySQL";
@@ -538,16 +1125,26 @@ public class MySQLDatabaseManager implements DatabaseManager {
         String host = plugin.getConfig().getString("database.mysql.host", "localhost");
         int port = plugin.getConfig().getInt("database.mysql.port", 3306);
         String database = plugin.getConfig().getString("database.mysql.database", "leafwe");
-        return "MySQL: " + host + ":" + port + "/" + database;
+        String info = "MySQL: " + host + ":" + port + "/" + database;
+
+        HikariDataSource replica = replicaSource;
+        if (replica != null && !replica.isClosed()) {
+            long replicaCount = replicaReads.get();
+            long total = replicaCount + primaryReads.get();
+            info += " | Replica: " + replica.getJdbcUrl().replace("jdbc:mysql://", "") +
+                    String.format(" (%.0f%% of reads)", total > 0 ? replicaCount * 100.0 / total : 0.0);
+        }
+        return info;
     }
 
     @Override
     public CompletableFuture<DatabaseStats> getDatabaseStats() {
         return CompletableFuture.supplyAsync(() -> {
             try (Connection conn = dataSource.getConnection()) {
-                long dailyUsageCount = getTableRowCount(conn, "daily_usage");
-                long playerStatsCount = getTableRowCount(conn, "player_stats");
-                long sessionCount = getTableRowCount(conn, "sessions");
+                Map<String, Long> estimates = getTableRowEstimates(conn);
+                long dailyUsageCount = estimates.getOrDefault("daily_usage", 0L);
+                long playerStatsCount = estimates.getOrDefault("player_stats", 0L);
+                long sessionCount = estimates.getOrDefault("sessions", 0L);
                 long totalRecords = dailyUsageCount + playerStatsCount + sessionCount;
 
                 double avgResponseTime = totalQueries.get() > 0 ?
@@ -569,28 +1166,68 @@ public class MySQLDatabaseManager implements DatabaseManager {
         });
     }
 
-    private long getTableRowCount(Connection conn, String tableName) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM " + tableName;
+    /**
+     * InnoDB row estimates from information_schema. Exact COUNT(*) would scan every table on each health check.
+     */
+    private Map<String, Long> getTableRowEstimates(Connection conn) throws SQLException {
+        String sql = """
+            SELECT TABLE_NAME, TABLE_ROWS FROM information_schema.TABLES
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME IN ('daily_usage', 'player_stats', 'sessions')
+            """;
+
+        Map<String, Long> estimates = new HashMap<>();
         try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
-            return rs.next() ? rs.getLong(1) : 0;
+            while (rs.next()) {
+                estimates.put(rs.getString(1).toLowerCase(), rs.getLong(2));
+            }
         }
+        return estimates;
     }
 
-    private void recordQueryMetrics(long startTime) {
+    private void recordQueryMetrics(long startTime, String queryType, String sql, Object... params) {
         long duration = System.nanoTime() - startTime;
         totalQueries.incrementAndGet();
         totalQueryTime.addAndGet(duration);
 
-        long durationMs = duration / 1_000_000;
-        long slowThreshold = plugin.getConfig().getLong("database.performance.slow-query-threshold", 1000);
-
-        if (durationMs > slowThreshold) {
+        if (slowQueryAnalyzer.isSlow(duration / 1_000_000)) {
             slowQueries.incrementAndGet();
-            if (plugin.getConfig().getBoolean("database.performance.log-slow-queries", true)) {
-                plugin.getLogger().warning("Slow query detected: " + durationMs + "ms");
+            slowQueryAnalyzer.record(queryType, sql, startTime, params);
+        }
+    }
+
+    /**
+     * Plain EXPLAIN on a pooled connection. Parameters that were not captured are bound as NULL.
+     */
+    private List<String> explainQuery(String sql, Object[] params) throws SQLException {
+        List<String> plan = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+
+            int parameterCount = stmt.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++) {
+                if (i <= params.length) {
+                    stmt.setObject(i, params[i - 1]);
+                } else {
+                    stmt.setNull(i, Types.VARCHAR);
+                }
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    plan.add("table=" + rs.getString("table") + " type=" + rs.getString("type") +
+                            " key=" + rs.getString("key") + " rows=" + rs.getString("rows") +
+                            " extra=" + rs.getString("Extra"));
+                }
             }
         }
+        return plan;
+    }
+
+    @Override
+    public SlowQueryAnalyzer getSlowQueryAnalyzer() {
+        return slowQueryAnalyzer;
     }
 
     private void logQuery(String sql, String... params) {
@@ -603,6 +1240,86 @@ public class MySQLDatabaseManager implements DatabaseManager {
         }
     }
 
+    @Override
+    public boolean supportsMaintenance(MaintenanceTask task) {
+        return task == MaintenanceTask.ANALYZE || task == MaintenanceTask.OPTIMIZE;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> performMaintenance(MaintenanceTask task) {
+        if (!supportsMaintenance(task)) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            // ANALYZE refreshes index statistics; OPTIMIZE rebuilds InnoDB tables online to reclaim space
+            String sql = (task == MaintenanceTask.ANALYZE ? "ANALYZE TABLE " : "OPTIMIZE TABLE ") +
+                    "daily_usage, player_stats, sessions";
+
+            try (Connection conn = dataSource.getConnection();
+                 Statement stmt = conn.createStatement()) {
+
+                boolean ok = true;
+                try (ResultSet rs = stmt.executeQuery(sql)) {
+                    while (rs.next()) {
+                        String msgType = rs.getString("Msg_type");
+                        if ("error".equalsIgnoreCase(msgType)) {
+                            plugin.getLogger().warning("MySQL " + task.name().toLowerCase() + " on " +
+                                    rs.getString("Table") + ": " + rs.getString("Msg_text"));
+                            ok = false;
+                        }
+                    }
+                }
+                return ok;
+            } catch (SQLException e) {
+                plugin.getLogger().warning("MySQL maintenance (" + task.name().toLowerCase() + ") failed: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public ConnectionPoolStats getConnectionPoolStats() {
+        if (dataSource == null || dataSource.isClosed() || dataSource.getHikariPoolMXBean() == null) {
+            return null;
+        }
+
+        var pool = dataSource.getHikariPoolMXBean();
+        return new ConnectionPoolStats(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                dataSource.getMaximumPoolSize(),
+                pool.getThreadsAwaitingConnection(),
+                acquireCount.get(),
+                acquireTimeNanos.get(),
+                maxAcquireTimeNanos.get(),
+                connectionTimeouts.get()
+        );
+    }
+
+    /**
+     * Hikari calls this tracker on every getConnection(); it only keeps running totals.
+     */
+    private class PoolMetricsTrackerFactory implements MetricsTrackerFactory {
+        @Override
+        public IMetricsTracker create(String poolName, PoolStats poolStats) {
+            return new IMetricsTracker() {
+                @Override
+                public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                    acquireCount.incrementAndGet();
+                    acquireTimeNanos.addAndGet(elapsedAcquiredNanos);
+                    maxAcquireTimeNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+                }
+
+                @Override
+                public void recordConnectionTimeout() {
+                    connectionTimeouts.incrementAndGet();
+                }
+            };
+        }
+    }
+
     /**
      * Get connection pool metrics for monitoring
      */
@@ -2,6 +2,10 @@ package com.leaf.leafwe.database.impl;
 
 import com.leaf.leafwe.LeafWE;
 import com.leaf.leafwe.database.DatabaseManager;
+import com.leaf.leafwe.database.SlowQueryAnalyzer;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
 
 import java.io.File;
 import java.sql.*;
@@ -9,16 +13,33 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 public class SQLiteDatabaseManager implements DatabaseManager {
 
     private final LeafWE plugin;
     private Connection connection;
+    private Connection readerConnection;
+    private String jdbcUrl;
     private final String databaseFile;
     private boolean initialized = false;
 
     private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock readerLock = new ReentrantLock();
+
+    // Row counters are maintained by the write paths so that getDatabaseStats never scans a table.
+    private final AtomicLong dailyUsageRows = new AtomicLong(0);
+    private final AtomicLong playerStatsRows = new AtomicLong(0);
+    private final AtomicLong sessionRows = new AtomicLong(0);
+    private BukkitRunnable reconcileTask;
+    private volatile GroupCommitWriter writer;
+    private final SlowQueryAnalyzer slowQueryAnalyzer;
+
+    // Retries of the single backup step while the source is locked (e.g. during a checkpoint)
+    private static final int BACKUP_BUSY_SLEEP_MS = 100;
+    private static final int BACKUP_BUSY_RETRIES = 50;
 
     private static final String CREATE_DAILY_USAGE_TABLE = """
         CREATE TABLE IF NOT EXISTS daily_usage (
@@ -28,6 +49,9 @@ public class SQLiteDatabaseManager implements DatabaseManager {
             operations_used INTEGER DEFAULT 0,
             player_group TEXT DEFAULT 'default',
             last_updated INTEGER DEFAULT 0,
+            reserved_blocks INTEGER NOT NULL DEFAULT 0,
+            reserved_operations INTEGER NOT NULL DEFAULT 0,
+            reserved_at INTEGER NOT NULL DEFAULT 0,
             PRIMARY KEY (player_id, date)
         )
         """;
@@ -55,9 +79,28 @@ public class SQLiteDatabaseManager implements DatabaseManager {
         )
         """;
 
+    private static final String UPDATE_DAILY_USAGE = """
+        UPDATE daily_usage
+        SET blocks_used = ?, operations_used = ?, player_group = ?, last_updated = ?
+        WHERE player_id = ? AND date = ?
+        """;
+
+    private static final String INCREMENT_DAILY_USAGE = """
+        UPDATE daily_usage
+        SET blocks_used = blocks_used + ?, operations_used = operations_used + ?, player_group = ?, last_updated = ?
+        WHERE player_id = ? AND date = ?
+        """;
+
+    private static final String INSERT_DAILY_USAGE = """
+        INSERT INTO daily_usage
+        (player_id, date, blocks_used, operations_used, player_group, last_updated)
+        VALUES (?, ?, ?, ?, ?, ?)
+        """;
+
     public SQLiteDatabaseManager(LeafWE plugin) {
         this.plugin = plugin;
         this.databaseFile = plugin.getConfig().getString("database.sqlite.file", "data/leafwe.db");
+        this.slowQueryAnalyzer = new SlowQueryAnalyzer(plugin, this::explainQueryPlan);
     }
 
     @Override
@@ -71,13 +114,27 @@ public class SQLiteDatabaseManager implements DatabaseManager {
                 boolean ignored = dbFile.getParentFile().mkdirs();
 
                 String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
+                jdbcUrl = url;
                 connection = DriverManager.getConnection(url);
 
-                applySQLiteOptimizations();
+                boolean walMode = applySQLiteOptimizations();
 
                 createTables();
 
+                if (walMode) {
+                    readerConnection = openReaderConnection(url);
+                }
+
+                dailyUsageRows.set(getTableRowCount(connection, "daily_usage"));
+                playerStatsRows.set(getTableRowCount(connection, "player_stats"));
+                sessionRows.set(getTableRowCount(connection, "sessions"));
+
+                writer = new GroupCommitWriter(plugin, () -> connection, lock,
+                        plugin.getConfig().getLong("database.sqlite.group-commit.max-delay-ms", 10),
+                        plugin.getConfig().getInt("database.sqlite.group-commit.max-batch", 256));
+
                 initialized = true;
+                startReconcileTask();
                 plugin.getLogger().info("SQLite database initialized successfully: " + dbFile.getAbsolutePath());
                 return true;
 
@@ -91,14 +148,22 @@ public class SQLiteDatabaseManager implements DatabaseManager {
         });
     }
 
-    private void applySQLiteOptimizations() throws SQLException {
+    private boolean applySQLiteOptimizations() throws SQLException {
         String journalMode = plugin.getConfig().getString("database.sqlite.journal-mode", "WAL");
         String synchronous = plugin.getConfig().getString("database.sqlite.synchronous", "NORMAL");
         int cacheSize = plugin.getConfig().getInt("database.sqlite.cache-size", 2000);
         String tempStore = plugin.getConfig().getString("database.sqlite.temp-store", "MEMORY");
 
         try (Statement stmt = connection.createStatement()) {
-            stmt.execute("PRAGMA journal_mode = " + journalMode);
+            // Only takes effect on a new, empty database file; existing files keep their mode until a full VACUUM
+            stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+
+            String activeJournalMode = journalMode;
+            try (ResultSet rs = stmt.executeQuery("PRAGMA journal_mode = " + journalMode)) {
+                if (rs.next()) {
+                    activeJournalMode = rs.getString(1);
+                }
+            }
             stmt.execute("PRAGMA synchronous = " + synchronous);
             stmt.execute("PRAGMA cache_size = " + cacheSize);
             stmt.execute("PRAGMA temp_store = " + tempStore);
@@ -108,6 +173,22 @@ public class SQLiteDatabaseManager implements DatabaseManager {
             plugin.getLogger().info("SQLite optimizations applied: " +
                     "journal_mode=" + journalMode + ", synchronous=" + synchronous +
                     ", cache_size=" + cacheSize + ", temp_store=" + tempStore);
+            return "wal".equalsIgnoreCase(activeJournalMode);
+        }
+    }
+
+    /**
+     * Read-only side connection. In WAL mode it can scan tables without blocking the writer.
+     */
+    private Connection openReaderConnection(String url) {
+        try {
+            SQLiteConfig readerConfig = new SQLiteConfig();
+            readerConfig.setReadOnly(true);
+            readerConfig.setBusyTimeout(3000);
+            return DriverManager.getConnection(url, readerConfig.toProperties());
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Could not open SQLite reader connection: " + e.getMessage());
+            return null;
         }
     }
 
@@ -117,20 +198,57 @@ public class SQLiteDatabaseManager implements DatabaseManager {
             stmt.execute(CREATE_PLAYER_STATS_TABLE);
             stmt.execute(CREATE_SESSIONS_TABLE);
 
+            // Tables created by older versions
+            ensureColumn(stmt, "daily_usage", "reserved_blocks", "INTEGER NOT NULL DEFAULT 0");
+            ensureColumn(stmt, "daily_usage", "reserved_operations", "INTEGER NOT NULL DEFAULT 0");
+            ensureColumn(stmt, "daily_usage", "reserved_at", "INTEGER NOT NULL DEFAULT 0");
+
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_daily_usage_date ON daily_usage(date)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_daily_usage_player ON daily_usage(player_id)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_sessions_player ON sessions(player_id)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_sessions_time ON sessions(start_time)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_player_stats_total_blocks ON player_stats(total_blocks_placed)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_player_stats_total_operations ON player_stats(total_operations)");
 
             plugin.getLogger().info("Database tables and indexes created successfully");
         }
     }
 
+    private void ensureColumn(Statement stmt, String table, String column, String definition) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+
+        stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        plugin.getLogger().info("Added column " + table + "." + column);
+    }
+
     @Override
     public CompletableFuture<Void> shutdown() {
+        if (reconcileTask != null) {
+            reconcileTask.cancel();
+            reconcileTask = null;
+        }
+
         return CompletableFuture.runAsync(() -> {
+            if (writer != null) {
+                writer.shutdown(10000);
+                writer = null;
+            }
+            slowQueryAnalyzer.shutdown();
+
+            readerLock.lock();
             lock.lock();
             try {
+                if (readerConnection != null && !readerConnection.isClosed()) {
+                    readerConnection.close();
+                }
+                readerConnection = null;
+
                 if (connection != null && !connection.isClosed()) {
                     connection.close();
                     plugin.getLogger().info("SQLite database connection closed");
@@ -140,6 +258,7 @@ public class SQLiteDatabaseManager implements DatabaseManager {
                 plugin.getLogger().warning("Error closing SQLite database: " + e.getMessage());
             } finally {
                 lock.unlock();
+                readerLock.unlock();
             }
         });
     }
@@ -179,7 +298,9 @@ public class SQLiteDatabaseManager implements DatabaseManager {
 
                     logQuery(sql, playerId.toString(), date);
 
+                    long startTime = System.nanoTime();
                     try (ResultSet rs = stmt.executeQuery()) {
+                        slowQueryAnalyzer.record("getDailyUsage", sql, startTime, playerId.toString(), date);
                         if (rs.next()) {
                             return new DailyUsageData(
                                     UUID.fromString(rs.getString("player_id")),
@@ -205,62 +326,153 @@ public class SQLiteDatabaseManager implements DatabaseManager {
 
     @Override
     public CompletableFuture<Boolean> updateDailyUsage(UUID playerId, String date, int blocksUsed, int operationsUsed, String group) {
-        return CompletableFuture.supplyAsync(() -> {
-            lock.lock();
-            try {
-                String sql = """
-                    INSERT OR REPLACE INTO daily_usage
-                    (player_id, date, blocks_used, operations_used, player_group, last_updated)
-                    VALUES (?, ?, ?, ?, ?, ?)
-                    """;
+        DailyUsageData usage = new DailyUsageData(playerId, date, blocksUsed, operationsUsed, group, System.currentTimeMillis());
 
-                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                    stmt.setString(1, playerId.toString());
-                    stmt.setString(2, date);
-                    stmt.setInt(3, blocksUsed);
-                    stmt.setInt(4, operationsUsed);
-                    stmt.setString(5, group);
-                    stmt.setLong(6, System.currentTimeMillis());
+        return submitWrite("updating daily usage", UPDATE_DAILY_USAGE, conn -> {
+            try (PreparedStatement update = conn.prepareStatement(UPDATE_DAILY_USAGE);
+                 PreparedStatement insert = conn.prepareStatement(INSERT_DAILY_USAGE)) {
 
-                    logQuery(sql, playerId.toString(), date, String.valueOf(blocksUsed), String.valueOf(operationsUsed), group);
+                logQuery(UPDATE_DAILY_USAGE, playerId.toString(), date, String.valueOf(blocksUsed), String.valueOf(operationsUsed), group);
 
-                    int affected = stmt.executeUpdate();
-                    return affected > 0;
-                }
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Error updating daily usage: " + e.getMessage());
-                return false;
-            } finally {
-                lock.unlock();
+                return writeDailyUsage(update, insert, usage) ? 1 : 0;
             }
-        });
+        }, dailyUsageRows, dailyUsageParams(usage));
     }
 
     @Override
     public CompletableFuture<Boolean> resetDailyUsage(UUID playerId, String date) {
-        return CompletableFuture.supplyAsync(() -> {
-            lock.lock();
-            try {
-                String sql = "DELETE FROM daily_usage WHERE player_id = ? AND date = ?";
+        String sql = "DELETE FROM daily_usage WHERE player_id = ? AND date = ?";
 
-                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                    stmt.setString(1, playerId.toString());
-                    stmt.setString(2, date);
+        return enqueue(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, playerId.toString());
+                stmt.setString(2, date);
 
-                    logQuery(sql, playerId.toString(), date);
+                logQuery(sql, playerId.toString(), date);
 
-                    int affected = stmt.executeUpdate();
-                    return affected > 0;
-                }
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Error resetting daily usage: " + e.getMessage());
-                return false;
-            } finally {
-                lock.unlock();
+                return stmt.executeUpdate();
             }
+        }, affected -> dailyUsageRows.addAndGet(-affected)).thenApply(affected -> affected > 0).exceptionally(throwable -> {
+            plugin.getLogger().severe("Error resetting daily usage: " + throwable.getMessage());
+            return false;
         });
     }
 
+    @Override
+    public CompletableFuture<Boolean> reserveDailyUsage(UUID playerId, String date, String group, int blocks, int maxBlocks,
+                                                        int maxOperations, long staleBefore) {
+        String insertSql = "INSERT OR IGNORE INTO daily_usage (player_id, date, player_group, last_updated) VALUES (?, ?, ?, ?)";
+        String sql = """
+            UPDATE daily_usage
+            SET reserved_blocks = (CASE WHEN reserved_at < ? THEN 0 ELSE reserved_blocks END) + ?,
+            reserved_operations = (CASE WHEN reserved_at < ? THEN 0 ELSE reserved_operations END) + 1,
+            reserved_at = ?
+            WHERE player_id = ? AND date = ?
+            AND (? < 0 OR blocks_used + (CASE WHEN reserved_at < ? THEN 0 ELSE reserved_blocks END) + ? <= ?)
+            AND (? < 0 OR operations_used + (CASE WHEN reserved_at < ? THEN 0 ELSE reserved_operations END) + 1 <= ?)
+            """;
+
+        // The writer thread runs intents one after another, so the check and the increment cannot interleave
+        return enqueue(conn -> {
+            long startTime = System.nanoTime();
+            try (PreparedStatement insert = conn.prepareStatement(insertSql);
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                insert.setString(1, playerId.toString());
+                insert.setString(2, date);
+                insert.setString(3, group);
+                long now = System.currentTimeMillis();
+                insert.setLong(4, now);
+                int inserted = insert.executeUpdate();
+
+                stmt.setLong(1, staleBefore);
+                stmt.setInt(2, blocks);
+                stmt.setLong(3, staleBefore);
+                stmt.setLong(4, now);
+                stmt.setString(5, playerId.toString());
+                stmt.setString(6, date);
+                stmt.setInt(7, maxBlocks);
+                stmt.setLong(8, staleBefore);
+                stmt.setInt(9, blocks);
+                stmt.setInt(10, maxBlocks);
+                stmt.setInt(11, maxOperations);
+                stmt.setLong(12, staleBefore);
+                stmt.setInt(13, maxOperations);
+
+                logQuery(sql, playerId.toString(), date, String.valueOf(blocks));
+
+                boolean reserved = stmt.executeUpdate() > 0;
+                slowQueryAnalyzer.record("reserveDailyUsage", sql, startTime, staleBefore, blocks, staleBefore, now,
+                        playerId.toString(), date, maxBlocks, staleBefore, blocks, maxBlocks, maxOperations, staleBefore, maxOperations);
+                return new int[]{inserted, reserved ? 1 : 0};
+            }
+        }, result -> dailyUsageRows.addAndGet(result[0])).thenApply(result -> result[1] == 1);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> commitDailyReservation(UUID playerId, String date, String group, int reservedBlocks, int usedBlocks) {
+        String sql = """
+            UPDATE daily_usage
+            SET blocks_used = blocks_used + ?, operations_used = operations_used + 1,
+            reserved_blocks = MAX(reserved_blocks - ?, 0), reserved_operations = MAX(reserved_operations - 1, 0),
+            player_group = ?, last_updated = ?
+            WHERE player_id = ? AND date = ?
+            """;
+
+        long now = System.currentTimeMillis();
+
+        return submitWrite("committing reservation", sql, conn -> {
+            try (PreparedStatement update = conn.prepareStatement(sql)) {
+                update.setInt(1, usedBlocks);
+                update.setInt(2, reservedBlocks);
+                update.setString(3, group);
+                update.setLong(4, now);
+                update.setString(5, playerId.toString());
+                update.setString(6, date);
+
+                logQuery(sql, String.valueOf(usedBlocks), String.valueOf(reservedBlocks), playerId.toString(), date);
+
+                if (update.executeUpdate() > 0) {
+                    return 0;
+                }
+            }
+
+            // Row was reset while the task ran
+            try (PreparedStatement insert = conn.prepareStatement(INSERT_DAILY_USAGE)) {
+                insert.setString(1, playerId.toString());
+                insert.setString(2, date);
+                insert.setInt(3, usedBlocks);
+                insert.setInt(4, 1);
+                insert.setString(5, group);
+                insert.setLong(6, now);
+                insert.executeUpdate();
+                return 1;
+            }
+        }, dailyUsageRows, usedBlocks, reservedBlocks, group, now, playerId.toString(), date);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> releaseDailyReservation(UUID playerId, String date, int reservedBlocks) {
+        String sql = """
+            UPDATE daily_usage
+            SET reserved_blocks = MAX(reserved_blocks - ?, 0), reserved_operations = MAX(reserved_operations - 1, 0)
+            WHERE player_id = ? AND date = ?
+            """;
+
+        return submitWrite("releasing reservation", sql, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, reservedBlocks);
+                stmt.setString(2, playerId.toString());
+                stmt.setString(3, date);
+
+                logQuery(sql, String.valueOf(reservedBlocks), playerId.toString(), date);
+
+                stmt.executeUpdate();
+                return 0;
+            }
+        }, dailyUsageRows, reservedBlocks, playerId.toString(), date);
+    }
+
     @Override
     public CompletableFuture<Boolean> cleanupOldData(int daysToKeep) {
         return CompletableFuture.supplyAsync(() -> {
@@ -278,11 +490,13 @@ public class SQLiteDatabaseManager implements DatabaseManager {
                     stmt.setLong(1, cutoffTime);
                     deletedUsage = stmt.executeUpdate();
                 }
+                dailyUsageRows.addAndGet(-deletedUsage);
 
                 try (PreparedStatement stmt = connection.prepareStatement(sql2)) {
                     stmt.setLong(1, cutoffTime);
                     deletedSessions = stmt.executeUpdate();
                 }
+                sessionRows.addAndGet(-deletedSessions);
 
                 plugin.getLogger().info("Cleanup completed: " + deletedUsage + " usage records, " +
                         deletedSessions + " session records deleted");
@@ -307,7 +521,9 @@ public class SQLiteDatabaseManager implements DatabaseManager {
                 try (PreparedStatement stmt = connection.prepareStatement(sql)) {
                     stmt.setString(1, playerId.toString());
 
+                    long startTime = System.nanoTime();
                     try (ResultSet rs = stmt.executeQuery()) {
+                        slowQueryAnalyzer.record("getPlayerStats", sql, startTime, playerId.toString());
                         if (rs.next()) {
                             return new PlayerStats(
                                     UUID.fromString(rs.getString("player_id")),
@@ -336,89 +552,152 @@ public class SQLiteDatabaseManager implements DatabaseManager {
 
     @Override
     public CompletableFuture<Boolean> updatePlayerStats(UUID playerId, String statType, long value) {
-        return CompletableFuture.supplyAsync(() -> {
-            lock.lock();
-            try {
-                String sql = "INSERT OR REPLACE INTO player_stats (player_id, " + statType + ", last_seen) VALUES (?, ?, ?)";
+        String sql = "UPDATE player_stats SET " + statType + " = ?, last_seen = ? WHERE player_id = ?";
 
-                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                    stmt.setString(1, playerId.toString());
-                    stmt.setLong(2, value);
-                    stmt.setLong(3, System.currentTimeMillis());
+        long now = System.currentTimeMillis();
+
+        return submitWrite("updating player stats", sql, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, value);
+                stmt.setLong(2, now);
+                stmt.setString(3, playerId.toString());
 
-                    int affected = stmt.executeUpdate();
-                    return affected > 0;
+                if (stmt.executeUpdate() == 0) {
+                    insertPlayerStats(conn, playerId, statType, value, now);
+                    return 1;
                 }
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Error updating player stats: " + e.getMessage());
-                return false;
-            } finally {
-                lock.unlock();
+                return 0;
             }
-        });
+        }, playerStatsRows, value, now, playerId.toString());
     }
 
     @Override
     public CompletableFuture<Boolean> incrementPlayerStat(UUID playerId, String statType, long increment) {
-        return CompletableFuture.supplyAsync(() -> {
-            lock.lock();
-            try {
-                String sql = """
-                    INSERT INTO player_stats (player_id, %s, last_seen, first_seen)
-                    VALUES (?, ?, ?, ?)
-                    ON CONFLICT(player_id) DO UPDATE SET
-                    %s = %s + ?,
-                    last_seen = ?
-                    """.formatted(statType, statType, statType);
+        String sql = "UPDATE player_stats SET %s = %s + ?, last_seen = ? WHERE player_id = ?"
+                .formatted(statType, statType);
 
-                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                    long now = System.currentTimeMillis();
-                    stmt.setString(1, playerId.toString());
-                    stmt.setLong(2, increment);
-                    stmt.setLong(3, now);
-                    stmt.setLong(4, now);
-                    stmt.setLong(5, increment);
-                    stmt.setLong(6, now);
+        long now = System.currentTimeMillis();
+
+        return submitWrite("incrementing player stat", sql, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, increment);
+                stmt.setLong(2, now);
+                stmt.setString(3, playerId.toString());
 
-                    int affected = stmt.executeUpdate();
-                    return affected > 0;
+                if (stmt.executeUpdate() == 0) {
+                    insertPlayerStats(conn, playerId, statType, increment, now);
+                    return 1;
                 }
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Error incrementing player stat: " + e.getMessage());
-                return false;
-            } finally {
-                lock.unlock();
+                return 0;
             }
-        });
+        }, playerStatsRows, increment, now, playerId.toString());
     }
 
     @Override
-    public CompletableFuture<Boolean> recordSession(UUID playerId, String sessionType, long duration) {
+    public CompletableFuture<Boolean> batchIncrementPlayerStats(List<PlayerStats> deltas) {
+        String updateSql = """
+            UPDATE player_stats
+            SET total_blocks_placed = total_blocks_placed + ?, total_operations = total_operations + ?, last_seen = ?
+            WHERE player_id = ?
+            """;
+        String insertSql = """
+            INSERT INTO player_stats (player_id, total_blocks_placed, total_operations, first_seen, last_seen)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+        long now = System.currentTimeMillis();
+        // The first row stands in for the batch in the slow query log and its EXPLAIN
+        Object[] sample = deltas.isEmpty() ? new Object[0] : new Object[]{
+                deltas.get(0).totalBlocksPlaced, deltas.get(0).totalOperations, now, deltas.get(0).playerId.toString()};
+
+        return submitWrite("player stats batch", updateSql, conn -> {
+            try (PreparedStatement update = conn.prepareStatement(updateSql);
+                 PreparedStatement insert = conn.prepareStatement(insertSql)) {
+                int inserted = 0;
+
+                for (PlayerStats delta : deltas) {
+                    update.setLong(1, delta.totalBlocksPlaced);
+                    update.setLong(2, delta.totalOperations);
+                    update.setLong(3, now);
+                    update.setString(4, delta.playerId.toString());
+
+                    if (update.executeUpdate() == 0) {
+                        insert.setString(1, delta.playerId.toString());
+                        insert.setLong(2, delta.totalBlocksPlaced);
+                        insert.setLong(3, delta.totalOperations);
+                        insert.setLong(4, now);
+                        insert.setLong(5, now);
+                        insert.executeUpdate();
+                        inserted++;
+                    }
+                }
+                return inserted;
+            }
+        }, playerStatsRows, sample);
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerStats>> getTopPlayers(String statType, int limit) {
         return CompletableFuture.supplyAsync(() -> {
-            lock.lock();
-            try {
-                String sql = "INSERT INTO sessions (player_id, session_type, start_time, end_time, duration) VALUES (?, ?, ?, ?, ?)";
+            if (!statType.equals("total_blocks_placed") && !statType.equals("total_operations")) {
+                throw new IllegalArgumentException("Unsupported leaderboard stat: " + statType);
+            }
 
-                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                    long now = System.currentTimeMillis();
-                    stmt.setString(1, playerId.toString());
-                    stmt.setString(2, sessionType);
-                    stmt.setLong(3, now - duration);
-                    stmt.setLong(4, now);
-                    stmt.setLong(5, duration);
+            String sql = "SELECT * FROM player_stats ORDER BY " + statType + " DESC LIMIT ?";
+            List<PlayerStats> results = new ArrayList<>();
+
+            // The reader connection keeps leaderboard reads from queuing behind writes in WAL mode.
+            ReentrantLock queryLock = readerConnection != null ? readerLock : lock;
+            queryLock.lock();
+            try {
+                Connection conn = readerConnection != null ? readerConnection : connection;
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, limit);
 
-                    int affected = stmt.executeUpdate();
-                    return affected > 0;
+                    long startTime = System.nanoTime();
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        slowQueryAnalyzer.record("getTopPlayers", sql, startTime, limit);
+                        while (rs.next()) {
+                            results.add(new PlayerStats(
+                                    UUID.fromString(rs.getString("player_id")),
+                                    rs.getLong("total_blocks_placed"),
+                                    rs.getLong("total_operations"),
+                                    rs.getLong("total_playtime"),
+                                    rs.getString("favorite_block"),
+                                    rs.getLong("first_seen"),
+                                    rs.getLong("last_seen")
+                            ));
+                        }
+                    }
                 }
             } catch (SQLException e) {
-                plugin.getLogger().severe("Error recording session: " + e.getMessage());
-                return false;
+                plugin.getLogger().severe("Error getting top players: " + e.getMessage());
             } finally {
-                lock.unlock();
+                queryLock.unlock();
             }
+            return results;
         });
     }
 
+    @Override
+    public CompletableFuture<Boolean> recordSession(UUID playerId, String sessionType, long duration) {
+        String sql = "INSERT INTO sessions (player_id, session_type, start_time, end_time, duration) VALUES (?, ?, ?, ?, ?)";
+
+        long now = System.currentTimeMillis();
+
+        return submitWrite("recording session", sql, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, playerId.toString());
+                stmt.setString(2, sessionType);
+                stmt.setLong(3, now - duration);
+                stmt.setLong(4, now);
+                stmt.setLong(5, duration);
+
+                return stmt.executeUpdate();
+            }
+        }, sessionRows, playerId.toString(), sessionType, now - duration, now, duration);
+    }
+
     @Override
     public CompletableFuture<SessionData> getLastSession(UUID playerId) {
         return CompletableFuture.supplyAsync(() -> {
@@ -453,54 +732,48 @@ public class SQLiteDatabaseManager implements DatabaseManager {
 
     @Override
     public CompletableFuture<Boolean> batchUpdateDailyUsage(List<DailyUsageData> usageList) {
-        return CompletableFuture.supplyAsync(() -> {
-            lock.lock();
-            try {
-                String sql = """
-                    INSERT OR REPLACE INTO daily_usage
-                    (player_id, date, blocks_used, operations_used, player_group, last_updated)
-                    VALUES (?, ?, ?, ?, ?, ?)
-                    """;
-
-                try {
-                    connection.setAutoCommit(false);
-
-                    try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                        for (DailyUsageData usage : usageList) {
-                            stmt.setString(1, usage.playerId.toString());
-                            stmt.setString(2, usage.date);
-                            stmt.setInt(3, usage.blocksUsed);
-                            stmt.setInt(4, usage.operationsUsed);
-                            stmt.setString(5, usage.playerGroup);
-                            stmt.setLong(6, usage.lastUpdated);
-                            stmt.addBatch();
-                        }
-
-                        int[] results = stmt.executeBatch();
-                        connection.commit();
-
-                        plugin.getLogger().info("Batch update completed: " + results.length + " records processed");
-                        return true;
-                    }
-                } catch (SQLException e) {
-                    try {
-                        connection.rollback();
-                    } catch (SQLException rollbackEx) {
-                        plugin.getLogger().severe("Error during rollback: " + rollbackEx.getMessage());
+        return submitWrite("batch update", UPDATE_DAILY_USAGE, conn -> {
+            try (PreparedStatement update = conn.prepareStatement(UPDATE_DAILY_USAGE);
+                 PreparedStatement insert = conn.prepareStatement(INSERT_DAILY_USAGE)) {
+                int inserted = 0;
+                for (DailyUsageData usage : usageList) {
+                    if (writeDailyUsage(update, insert, usage)) {
+                        inserted++;
                     }
-                    plugin.getLogger().severe("Error in batch update: " + e.getMessage());
-                    return false;
-                } finally {
-                    try {
-                        connection.setAutoCommit(true);
-                    } catch (SQLException e) {
-                        plugin.getLogger().severe("Error restoring auto-commit: " + e.getMessage());
+                }
+                return inserted;
+            }
+        }, dailyUsageRows, usageList.isEmpty() ? new Object[0] : dailyUsageParams(usageList.get(0)));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> batchIncrementDailyUsage(List<DailyUsageData> deltas) {
+        return submitWrite("batch increment", INCREMENT_DAILY_USAGE, conn -> {
+            try (PreparedStatement update = conn.prepareStatement(INCREMENT_DAILY_USAGE);
+                 PreparedStatement insert = conn.prepareStatement(INSERT_DAILY_USAGE)) {
+                int inserted = 0;
+                for (DailyUsageData delta : deltas) {
+                    update.setInt(1, delta.blocksUsed);
+                    update.setInt(2, delta.operationsUsed);
+                    update.setString(3, delta.playerGroup);
+                    update.setLong(4, delta.lastUpdated);
+                    update.setString(5, delta.playerId.toString());
+                    update.setString(6, delta.date);
+
+                    if (update.executeUpdate() == 0) {
+                        insert.setString(1, delta.playerId.toString());
+                        insert.setString(2, delta.date);
+                        insert.setInt(3, delta.blocksUsed);
+                        insert.setInt(4, delta.operationsUsed);
+                        insert.setString(5, delta.playerGroup);
+                        insert.setLong(6, delta.lastUpdated);
+                        insert.executeUpdate();
+                        inserted++;
                     }
                 }
-            } finally {
-                lock.unlock();
+                return inserted;
             }
-        });
+        }, dailyUsageRows, deltas.isEmpty() ? new Object[0] : dailyUsageParams(deltas.get(0)));
     }
 
     @Override
@@ -514,7 +787,9 @@ public class SQLiteDatabaseManager implements DatabaseManager {
                 try (PreparedStatement stmt = connection.prepareStatement(sql)) {
                     stmt.setString(1, date);
 
+                    long startTime = System.nanoTime();
                     try (ResultSet rs = stmt.executeQuery()) {
+                        slowQueryAnalyzer.record("getAllDailyUsage", sql, startTime, date);
                         while (rs.next()) {
                             results.add(new DailyUsageData(
                                     UUID.fromString(rs.getString("player_id")),
@@ -537,6 +812,98 @@ public class SQLiteDatabaseManager implements DatabaseManager {
         });
     }
 
+    @Override
+    public CompletableFuture<Long> streamDailyUsage(String fromDate, String toDate, RowConsumer<DailyUsageData> consumer) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "SELECT * FROM daily_usage WHERE date >= ? AND date <= ?";
+
+            return streamQuery(sql, stmt -> {
+                stmt.setString(1, fromDate);
+                stmt.setString(2, toDate);
+            }, rs -> consumer.accept(new DailyUsageData(
+                    UUID.fromString(rs.getString("player_id")),
+                    rs.getString("date"),
+                    rs.getInt("blocks_used"),
+                    rs.getInt("operations_used"),
+                    rs.getString("player_group"),
+                    rs.getLong("last_updated")
+            )));
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> streamPlayerStats(long seenSince, RowConsumer<PlayerStats> consumer) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "SELECT * FROM player_stats WHERE last_seen >= ?";
+
+            return streamQuery(sql, stmt -> stmt.setLong(1, seenSince), rs -> consumer.accept(new PlayerStats(
+                    UUID.fromString(rs.getString("player_id")),
+                    rs.getLong("total_blocks_placed"),
+                    rs.getLong("total_operations"),
+                    rs.getLong("total_playtime"),
+                    rs.getString("favorite_block"),
+                    rs.getLong("first_seen"),
+                    rs.getLong("last_seen")
+            )));
+        });
+    }
+
+    /**
+     * Runs a long read on its own read-only connection so it never holds the shared locks.
+     * Without WAL a second reader would block the writer, so the main connection is used under the lock instead.
+     */
+    private long streamQuery(String sql, StatementBinder binder, RowHandler handler) {
+        boolean dedicated = readerConnection != null;
+        Connection conn = null;
+
+        if (!dedicated) {
+            lock.lock();
+        }
+        try {
+            conn = dedicated ? openReaderConnection(jdbcUrl) : connection;
+            if (conn == null) {
+                throw new IllegalStateException("Could not open export connection");
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(500);
+                binder.bind(stmt);
+
+                long rows = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        handler.handle(rs);
+                        rows++;
+                    }
+                }
+                return rows;
+            }
+        } catch (SQLException | java.io.IOException e) {
+            throw new java.util.concurrent.CompletionException(e);
+        } finally {
+            if (dedicated && conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    plugin.getLogger().warning("Error closing export connection: " + e.getMessage());
+                }
+            }
+            if (!dedicated) {
+                lock.unlock();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatementBinder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException, java.io.IOException;
+    }
+
     @Override
     public String getDatabaseType() {
         return "SQLite";
@@ -544,40 +911,341 @@ public class SQLiteDatabaseManager implements DatabaseManager {
 
     @Override
     public String getConnectionInfo() {
-        return "SQLite: " + databaseFile;
+        GroupCommitWriter current = writer;
+        if (current == null) {
+            return "SQLite: " + databaseFile;
+        }
+        return "SQLite: " + databaseFile + " (write queue: " + current.getQueueDepth() +
+                ", avg batch: " + String.format("%.1f", current.getAverageBatchSize()) + ")";
     }
 
     @Override
-    public CompletableFuture<DatabaseStats> getDatabaseStats() {
+    public SlowQueryAnalyzer getSlowQueryAnalyzer() {
+        return slowQueryAnalyzer;
+    }
+
+    /**
+     * EXPLAIN QUERY PLAN on the reader connection when there is one, so diagnostics never wait for the writer.
+     */
+    private List<String> explainQueryPlan(String sql, Object[] params) throws SQLException {
+        boolean useReader = readerConnection != null;
+        ReentrantLock queryLock = useReader ? readerLock : lock;
+        List<String> plan = new ArrayList<>();
+
+        queryLock.lock();
+        try {
+            Connection conn = useReader ? readerConnection : connection;
+            if (conn == null) {
+                throw new SQLException("SQLite database is not initialized");
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+                // Unbound parameters are NULL, which does not change the chosen plan
+                for (int i = 0; i < params.length; i++) {
+                    stmt.setObject(i + 1, params[i]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        plan.add(rs.getString("detail"));
+                    }
+                }
+            }
+        } finally {
+            queryLock.unlock();
+        }
+        return plan;
+    }
+
+    @Override
+    public boolean batchesWrites() {
+        return true;
+    }
+
+    @Override
+    public int getPendingWriteCount() {
+        GroupCommitWriter current = writer;
+        return current != null ? current.getQueueDepth() : 0;
+    }
+
+    @Override
+    public boolean supportsMaintenance(MaintenanceTask task) {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> performMaintenance(MaintenanceTask task) {
         return CompletableFuture.supplyAsync(() -> {
             lock.lock();
-            try {
-                long dailyUsageCount = getTableRowCount("daily_usage");
-                long playerStatsCount = getTableRowCount("player_stats");
-                long sessionCount = getTableRowCount("sessions");
-                long totalRecords = dailyUsageCount + playerStatsCount + sessionCount;
-
-                return new DatabaseStats(
-                        "SQLite",
-                        totalRecords,
-                        dailyUsageCount,
-                        playerStatsCount,
-                        sessionCount,
-                        0.0,
-                        initialized ? "Connected" : "Disconnected"
-                );
-            } catch (Exception e) {
-                plugin.getLogger().severe("Error getting database stats: " + e.getMessage());
-                return new DatabaseStats("SQLite", 0, 0, 0, 0, 0.0, "Error");
+            try (Statement stmt = connection.createStatement()) {
+                switch (task) {
+                    case OPTIMIZE:
+                        stmt.execute("PRAGMA optimize");
+                        return true;
+                    case ANALYZE:
+                        stmt.execute("ANALYZE");
+                        return true;
+                    case CHECKPOINT:
+                        String mode = plugin.getConfig().getString("database.maintenance.checkpoint-mode", "TRUNCATE").toUpperCase();
+                        if (!mode.equals("PASSIVE") && !mode.equals("FULL") && !mode.equals("RESTART") && !mode.equals("TRUNCATE")) {
+                            mode = "PASSIVE";
+                        }
+                        try (ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(" + mode + ")")) {
+                            // busy, log frames, checkpointed frames
+                            return rs.next() && rs.getInt(1) == 0;
+                        }
+                    case INCREMENTAL_VACUUM:
+                        try (ResultSet rs = stmt.executeQuery("PRAGMA auto_vacuum")) {
+                            // 2 = INCREMENTAL; other modes ignore incremental_vacuum, nothing to do
+                            if (!rs.next() || rs.getInt(1) != 2) {
+                                return true;
+                            }
+                        }
+                        int pages = plugin.getConfig().getInt("database.maintenance.vacuum-pages", 500);
+                        // Each step of the result set frees one page, so it has to be read to the end
+                        try (ResultSet rs = stmt.executeQuery("PRAGMA incremental_vacuum(" + Math.max(1, pages) + ")")) {
+                            while (rs.next()) {
+                                // drain
+                            }
+                        }
+                        return true;
+                    default:
+                        return false;
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().warning("SQLite maintenance (" + task.name().toLowerCase() + ") failed: " + e.getMessage());
+                return false;
             } finally {
                 lock.unlock();
             }
         });
     }
 
-    private long getTableRowCount(String tableName) throws SQLException {
+    @Override
+    public boolean supportsBackup() {
+        return true;
+    }
+
+    /**
+     * Online backup from a dedicated read-only connection. All pages are copied in a single step, i.e. one read
+     * transaction: in WAL mode that never blocks the writer, while an incremental backup would be restarted by
+     * every group commit that lands between its steps. Falls back to VACUUM INTO if the backup API fails.
+     * Refused in the rollback journal modes, where that read transaction would hold off every commit until
+     * the copy is done.
+     */
+    @Override
+    public CompletableFuture<Void> backupTo(File target) {
+        return CompletableFuture.runAsync(() -> {
+            try (Connection source = openReaderConnection(jdbcUrl)) {
+                if (source == null) {
+                    throw new SQLException("Could not open backup connection");
+                }
+
+                try (Statement stmt = source.createStatement();
+                     ResultSet rs = stmt.executeQuery("PRAGMA journal_mode")) {
+                    String journalMode = rs.next() ? rs.getString(1) : "unknown";
+                    if (!"wal".equalsIgnoreCase(journalMode)) {
+                        throw new SQLException("Online backups need database.sqlite.journal-mode WAL (currently " +
+                                journalMode.toUpperCase() + "), copy the database file while the server is stopped instead");
+                    }
+                }
+
+                try {
+                    int rc = source.unwrap(SQLiteConnection.class).getDatabase()
+                            .backup("main", target.getAbsolutePath(), null, BACKUP_BUSY_SLEEP_MS, BACKUP_BUSY_RETRIES, -1);
+                    if (rc == 0) {
+                        return;
+                    }
+                    plugin.getLogger().warning("SQLite online backup returned code " + rc + ", falling back to VACUUM INTO");
+                } catch (SQLException e) {
+                    plugin.getLogger().warning("SQLite online backup failed (" + e.getMessage() + "), falling back to VACUUM INTO");
+                }
+
+                if (target.exists() && !target.delete()) {
+                    throw new SQLException("Could not remove partial backup " + target.getName());
+                }
+                try (PreparedStatement stmt = source.prepareStatement("VACUUM INTO ?")) {
+                    stmt.setString(1, target.getAbsolutePath());
+                    stmt.execute();
+                }
+            } catch (SQLException e) {
+                throw new java.util.concurrent.CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<DatabaseStats> getDatabaseStats() {
+        long dailyUsageCount = dailyUsageRows.get();
+        long playerStatsCount = playerStatsRows.get();
+        long sessionCount = sessionRows.get();
+
+        return CompletableFuture.completedFuture(new DatabaseStats(
+                "SQLite",
+                dailyUsageCount + playerStatsCount + sessionCount,
+                dailyUsageCount,
+                playerStatsCount,
+                sessionCount,
+                0.0,
+                initialized ? "Connected" : "Disconnected"
+        ));
+    }
+
+    /**
+     * Returns true when a new row was inserted, false when an existing row was updated.
+     */
+    private boolean writeDailyUsage(PreparedStatement update, PreparedStatement insert, DailyUsageData usage) throws SQLException {
+        update.setInt(1, usage.blocksUsed);
+        update.setInt(2, usage.operationsUsed);
+        update.setString(3, usage.playerGroup);
+        update.setLong(4, usage.lastUpdated);
+        update.setString(5, usage.playerId.toString());
+        update.setString(6, usage.date);
+
+        if (update.executeUpdate() > 0) {
+            return false;
+        }
+
+        insert.setString(1, usage.playerId.toString());
+        insert.setString(2, usage.date);
+        insert.setInt(3, usage.blocksUsed);
+        insert.setInt(4, usage.operationsUsed);
+        insert.setString(5, usage.playerGroup);
+        insert.setLong(6, usage.lastUpdated);
+        insert.executeUpdate();
+        return true;
+    }
+
+    /**
+     * Parameters of UPDATE_DAILY_USAGE / INCREMENT_DAILY_USAGE for one row, in placeholder order.
+     */
+    private static Object[] dailyUsageParams(DailyUsageData usage) {
+        return new Object[]{usage.blocksUsed, usage.operationsUsed, usage.playerGroup, usage.lastUpdated,
+                usage.playerId.toString(), usage.date};
+    }
+
+    private void insertPlayerStats(Connection conn, UUID playerId, String statType, long value, long now) throws SQLException {
+        String sql = "INSERT INTO player_stats (player_id, " + statType + ", first_seen, last_seen) VALUES (?, ?, ?, ?)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, playerId.toString());
+            stmt.setLong(2, value);
+            stmt.setLong(3, now);
+            stmt.setLong(4, now);
+            stmt.executeUpdate();
+        }
+    }
+
+    private <T> CompletableFuture<T> enqueue(GroupCommitWriter.WriteIntent<T> intent) {
+        return enqueue(intent, null);
+    }
+
+    /**
+     * Queues a write; onCommit runs on the writer thread right after the commit, while the lock is still held,
+     * so reconcileRowCounts never sees committed rows the counters do not include yet.
+     */
+    private <T> CompletableFuture<T> enqueue(GroupCommitWriter.WriteIntent<T> intent, Consumer<T> onCommit) {
+        GroupCommitWriter current = writer;
+        if (current == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("SQLite database is not initialized"));
+        }
+        return current.submit(intent, onCommit);
+    }
+
+    /**
+     * Queues a write on the group-commit writer. The intent returns the number of rows it inserted;
+     * the row counter is advanced once the batch containing it has committed, before the lock is released.
+     * params are the values bound to sql (the first row for batches), kept with the query if it is slow.
+     */
+    private CompletableFuture<Boolean> submitWrite(String description, String sql, GroupCommitWriter.WriteIntent<Integer> intent,
+                                                   AtomicLong rowCounter, Object... params) {
+        return enqueue(conn -> {
+            long startTime = System.nanoTime();
+            Integer inserted = intent.apply(conn);
+            slowQueryAnalyzer.record(description, sql, startTime, params);
+            return inserted;
+        }, inserted -> rowCounter.addAndGet(inserted)).thenApply(inserted -> true).exceptionally(throwable -> {
+            plugin.getLogger().severe("Error " + description + ": " + throwable.getMessage());
+            return false;
+        });
+    }
+
+    private void startReconcileTask() {
+        long interval = plugin.getConfig().getLong("database.sqlite.stats-reconcile-interval", 1800);
+        if (interval <= 0) {
+            return;
+        }
+
+        reconcileTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                reconcileRowCounts();
+            }
+        };
+
+        long intervalTicks = interval * 20L;
+        reconcileTask.runTaskTimerAsynchronously(plugin, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Corrects counter drift caused by writes outside this manager (manual edits, migrations).
+     * The COUNT(*) scans run on the reader connection inside a snapshot that was opened while
+     * the write lock was held, so only writes made after the snapshot are applied on top.
+     */
+    private void reconcileRowCounts() {
+        if (!initialized) {
+            return;
+        }
+
+        readerLock.lock();
+        try {
+            if (readerConnection == null) {
+                lock.lock();
+                try {
+                    dailyUsageRows.set(getTableRowCount(connection, "daily_usage"));
+                    playerStatsRows.set(getTableRowCount(connection, "player_stats"));
+                    sessionRows.set(getTableRowCount(connection, "sessions"));
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+
+            long dailySnapshot;
+            long statsSnapshot;
+            long sessionSnapshot;
+
+            lock.lock();
+            try {
+                readerConnection.setAutoCommit(false);
+                try (Statement stmt = readerConnection.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT 1 FROM sqlite_master LIMIT 1")) {
+                    rs.next();
+                }
+                dailySnapshot = dailyUsageRows.get();
+                statsSnapshot = playerStatsRows.get();
+                sessionSnapshot = sessionRows.get();
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                dailyUsageRows.addAndGet(getTableRowCount(readerConnection, "daily_usage") - dailySnapshot);
+                playerStatsRows.addAndGet(getTableRowCount(readerConnection, "player_stats") - statsSnapshot);
+                sessionRows.addAndGet(getTableRowCount(readerConnection, "sessions") - sessionSnapshot);
+            } finally {
+                readerConnection.commit();
+                readerConnection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Error reconciling SQLite row counters: " + e.getMessage());
+        } finally {
+            readerLock.unlock();
+        }
+    }
+
+    private long getTableRowCount(Connection conn, String tableName) throws SQLException {
         String sql = "SELECT COUNT(*) FROM " + tableName;
-        try (Statement stmt = connection.createStatement();
+        try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             return rs.next() ? rs.getLong(1) : 0;
         }
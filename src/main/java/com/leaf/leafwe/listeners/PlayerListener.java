@@ -8,10 +8,13 @@ import com.leaf.leafwe.managers.*;
 
 import com.leaf.leafwe.LeafWE;
 
+import com.leaf.leafwe.registry.ManagerRegistry;
+
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerKickEvent;
 
@@ -34,6 +37,16 @@ public class PlayerListener implements Listener {
         this.blockstateManager = blockstateManager;
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+
+        DailyLimitManager dailyLimitManager = ManagerRegistry.dailyLimit();
+        if (dailyLimitManager != null) {
+            dailyLimitManager.warmup(event.getUniqueId());
+        }
+    }
+
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
         cleanupPlayer(event.getPlayer());
@@ -50,16 +63,22 @@ public class PlayerListener implements Listener {
         try {
             selectionManager.clearSelection(player);
 
+            // Cancelling the task saves its history, so it has to stop before the history is cleared
+            taskManager.finishTask(player);
+
             undoManager.clearHistory(player);
 
             pendingCommandManager.clear(player);
 
             selectionVisualizer.stop(player);
 
-            taskManager.finishTask(player);
-
             blockstateManager.clearCopiedBlockstate(player);
 
+            DailyLimitManager dailyLimitManager = ManagerRegistry.dailyLimit();
+            if (dailyLimitManager != null) {
+                dailyLimitManager.handleQuit(player.getUniqueId());
+            }
+
         } catch (Exception e) {
             System.err.println("Error cleaning up player " + player.getName() + ": " + e.getMessage());
         }
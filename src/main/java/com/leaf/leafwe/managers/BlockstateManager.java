@@ -5,6 +5,7 @@ import com.leaf.leafwe.tasks.*;
 import com.leaf.leafwe.gui.*;
 
 import com.leaf.leafwe.LeafWE;
+import com.leaf.leafwe.utils.BlockDataRegistry;
 
 import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Player;
@@ -13,16 +14,18 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public class BlockstateManager {
 
-    private final ConcurrentHashMap<UUID, BlockData> copiedBlockstates = new ConcurrentHashMap<>();
+    // Interned ids, see BlockDataRegistry
+    private final ConcurrentHashMap<UUID, Integer> copiedBlockstates = new ConcurrentHashMap<>();
 
     public void setCopiedBlockstate(Player player, BlockData blockData) {
         if (player == null || blockData == null) return;
-        copiedBlockstates.put(player.getUniqueId(), blockData);
+        copiedBlockstates.put(player.getUniqueId(), BlockDataRegistry.idOf(blockData));
     }
 
     public BlockData getCopiedBlockstate(Player player) {
         if (player == null) return null;
-        return copiedBlockstates.get(player.getUniqueId());
+        Integer id = copiedBlockstates.get(player.getUniqueId());
+        return id != null ? BlockDataRegistry.get(id) : null;
     }
 
     public void clearCopiedBlockstate(Player player) {
@@ -95,10 +95,30 @@ public class ConfigManager {
         return Math.max(1, config.getInt("settings.confirmation-limit", 5000));
     }
 
+    public boolean isPreflightEnabled() {
+        return config.getBoolean("settings.preflight.enabled", true);
+    }
+
+    public int getPreflightSampleChunks() {
+        return Math.max(1, config.getInt("settings.preflight.sample-chunks", 16));
+    }
+
+    public double getPreflightMinItemCoverage() {
+        return Math.max(0.0, Math.min(1.0, config.getDouble("settings.preflight.min-item-coverage", 0.0)));
+    }
+
     public int getMaxUndo() {
         return Math.max(1, config.getInt("settings.max-undo", 10));
     }
 
+    public long getUndoTickBudgetNanos() {
+        return (long) (Math.max(0.5, config.getDouble("settings.undo-tick-budget-ms", 5.0)) * 1_000_000L);
+    }
+
+    public long getUndoMemoryBudgetBytes() {
+        return Math.max(0, config.getLong("settings.undo-memory-budget-mb", 256)) * 1024L * 1024L;
+    }
+
     public int getMaxVolume() {
         return Math.max(1, config.getInt("settings.max-volume", 50000));
     }
@@ -6,16 +6,29 @@ import com.leaf.leafwe.gui.*;
 
 import com.leaf.leafwe.LeafWE;
 
+import com.leaf.leafwe.database.AdaptiveConcurrencyLimiter;
+import com.leaf.leafwe.database.AsyncDatabaseManager;
 import com.leaf.leafwe.database.DatabaseManager;
-import com.leaf.leafwe.database.DatabaseFactory;
+import com.leaf.leafwe.database.DatabaseService;
+import com.leaf.leafwe.registry.ManagerRegistry;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 public class DailyLimitManager {
 
@@ -23,36 +36,44 @@ public class DailyLimitManager {
     private final ConfigManager configManager;
     private final DatabaseManager databaseManager;
 
-    private final ConcurrentHashMap<UUID, CachedUsageData> usageCache = new ConcurrentHashMap<>();
-    private final long CACHE_DURATION = 5 * 60 * 1000;
+    private final UsageCache usageCache;
 
     private final ConcurrentHashMap<UUID, PendingUpdate> pendingUpdates = new ConcurrentHashMap<>();
+    // Usage from an earlier day that is still unwritten (failed flush or day rollover); written for its own date
+    private final ConcurrentLinkedQueue<Map.Entry<UUID, PendingUpdate>> lateUpdates = new ConcurrentLinkedQueue<>();
+    // Usage handed to the database but not confirmed yet, keyed by player and date; counted by the coherence poll
+    private final ConcurrentHashMap<Map.Entry<UUID, String>, int[]> inFlightUsage = new ConcurrentHashMap<>();
+    // Lifetime totals for player_stats; recorded even when daily limits are disabled
+    private final ConcurrentHashMap<UUID, PendingStats> pendingStats = new ConcurrentHashMap<>();
     private BukkitRunnable batchUpdateTask;
+    private BukkitRunnable coherenceTask;
+    private volatile boolean shuttingDown = false;
+
+    // Highest daily_usage row version seen by the coherence poll; -1 until the first poll
+    private volatile long versionCursor = -1;
+    private final AtomicBoolean pollRunning = new AtomicBoolean(false);
+
+    // Reservations held by confirmations and running tasks; released on shutdown
+    private final Set<Reservation> openReservations = ConcurrentHashMap.newKeySet();
+    private final long reserveTimeoutMillis;
+    private final long reservationTtlMillis;
 
     public DailyLimitManager(LeafWE plugin, ConfigManager configManager) {
         this.plugin = plugin;
         this.configManager = configManager;
 
-        this.databaseManager = DatabaseFactory.createFromConfig(plugin);
+        this.usageCache = new UsageCache(
+                plugin.getConfig().getInt("daily-limits.cache.max-size", 1000),
+                plugin.getConfig().getLong("daily-limits.cache.expire-after", 600) * 1000L);
 
-        initializeDatabase();
+        this.databaseManager = ManagerRegistry.databaseService().acquire(DailyLimitManager.class.getSimpleName());
+        this.reserveTimeoutMillis = plugin.getConfig().getLong("daily-limits.reserve-timeout", 2000);
+        this.reservationTtlMillis = Math.max(60, plugin.getConfig().getLong("daily-limits.reservation-ttl", 1800)) * 1000L;
+
+        migrateFromYAML();
         startBatchUpdateTask();
         startCleanupTask();
-    }
-
-    private void initializeDatabase() {
-        databaseManager.initialize().thenAccept(success -> {
-            if (success) {
-                plugin.getLogger().info("Database initialized successfully for Daily Limits");
-                migrateFromYAML();
-            } else {
-                plugin.getLogger().severe("Failed to initialize database for Daily Limits!");
-            }
-        }).exceptionally(throwable -> {
-            plugin.getLogger().severe("Error during database initialization: " + throwable.getMessage());
-            throwable.printStackTrace();
-            return null;
-        });
+        startCoherenceTask();
     }
 
     private void migrateFromYAML() {
@@ -87,21 +108,161 @@ public class DailyLimitManager {
         }
 
         String playerGroup = getPlayerGroup(player);
+        int maxBlocks = getGroupMaxBlocks(playerGroup);
+        int maxOperations = getGroupMaxOperations(playerGroup);
 
-        return getUsageAsync(player).thenApply(usage -> {
-            int maxBlocks = getGroupMaxBlocks(playerGroup);
-            int maxOperations = getGroupMaxOperations(playerGroup);
+        return getUsageAsync(player).thenApply(usage -> check(usage, blockCount, playerGroup, maxBlocks, maxOperations)).join();
+    }
+
+    /**
+     * Like {@link #canPerformOperationDetailed}, but also reserves the blocks and one operation in the database.
+     * The check and the reservation are one conditional update, so concurrent commands (on this or another
+     * server) cannot overrun the limit between check and use. Nothing here waits for the database: the future
+     * completes on a database or timer thread, so callers continue on the main thread with runTask. A granted
+     * reservation must be handed to {@link #commit} once the task ends or to {@link #release} if it never
+     * starts. If the database does not answer within daily-limits.reserve-timeout the cached check result is
+     * returned without a reservation. Call on the main thread (group lookup checks permissions).
+     */
+    public CompletableFuture<LimitCheckResult> reserve(Player player, int blockCount) {
+        if (!isDailyLimitsEnabled()) {
+            return CompletableFuture.completedFuture(new LimitCheckResult(true, LimitType.NONE, ""));
+        }
+
+        UUID playerId = player.getUniqueId();
+        String playerName = player.getName();
+        String playerGroup = getPlayerGroup(player);
+        int maxBlocks = getGroupMaxBlocks(playerGroup);
+        int maxOperations = getGroupMaxOperations(playerGroup);
 
-            if (maxOperations != -1 && (usage.operationsUsed + 1) > maxOperations) {
-                return new LimitCheckResult(false, LimitType.OPERATIONS, playerGroup);
+        return getUsageAsync(player).thenCompose(usage -> {
+            LimitCheckResult cached = check(usage, blockCount, playerGroup, maxBlocks, maxOperations);
+            if (!cached.canPerform || (maxBlocks == -1 && maxOperations == -1)) {
+                return CompletableFuture.completedFuture(cached);
             }
+            return reserveInDatabase(playerId, playerName, blockCount, playerGroup, maxBlocks, maxOperations, cached);
+        });
+    }
+
+    private LimitCheckResult check(UsageData usage, int blockCount, String playerGroup, int maxBlocks, int maxOperations) {
+        DailyUsageInfo info = new DailyUsageInfo(maxBlocks, maxOperations, usage.blocksUsed, usage.operationsUsed, playerGroup);
+
+        if (maxOperations != -1 && (usage.operationsUsed + 1) > maxOperations) {
+            return new LimitCheckResult(false, LimitType.OPERATIONS, playerGroup, null, info);
+        }
+
+        if (maxBlocks != -1 && (usage.blocksUsed + blockCount) > maxBlocks) {
+            return new LimitCheckResult(false, LimitType.BLOCKS, playerGroup, null, info);
+        }
 
-            if (maxBlocks != -1 && (usage.blocksUsed + blockCount) > maxBlocks) {
-                return new LimitCheckResult(false, LimitType.BLOCKS, playerGroup);
+        return new LimitCheckResult(true, LimitType.NONE, playerGroup, null, info);
+    }
+
+    private CompletableFuture<LimitCheckResult> reserveInDatabase(UUID playerId, String playerName, int blockCount,
+                                                                  String playerGroup, int maxBlocks, int maxOperations,
+                                                                  LimitCheckResult cached) {
+        String today = getCurrentDate();
+
+        // Usage recorded here but not flushed yet is not in the row, so it comes off the limit instead
+        PendingUpdate pending = pendingUpdates.get(playerId);
+        int pendingBlocks = pending != null && pending.date.equals(today) ? pending.blockCount : 0;
+        int pendingOperations = pending != null && pending.date.equals(today) ? pending.operationCount : 0;
+
+        CompletableFuture<LimitCheckResult> outcome = new CompletableFuture<>();
+
+        long staleBefore = System.currentTimeMillis() - reservationTtlMillis;
+        limitedWrite("reserve", AdaptiveConcurrencyLimiter.Priority.HIGH, () -> databaseManager.reserveDailyUsage(
+                playerId, today, playerGroup, blockCount,
+                maxBlocks == -1 ? -1 : maxBlocks - pendingBlocks,
+                maxOperations == -1 ? -1 : maxOperations - pendingOperations,
+                staleBefore)
+        ).whenComplete((reserved, throwable) -> {
+            if (throwable != null) {
+                plugin.getLogger().warning("Daily limit reservation for " + playerName + " failed, using cached usage: " +
+                        throwable.getMessage());
+                outcome.complete(cached);
+                return;
             }
 
-            return new LimitCheckResult(true, LimitType.NONE, playerGroup);
-        }).join();
+            if (!reserved) {
+                // Another server or command got there first; reload so the denial message shows current numbers
+                usageCache.invalidate(playerId);
+                loadUsage(playerId, today)
+                        .exceptionally(loadError -> new UsageData(cached.usage.usedBlocks, cached.usage.usedOperations, playerGroup))
+                        .thenAccept(usage -> {
+                            LimitType limitType = maxOperations != -1 && usage.operationsUsed + 1 > maxOperations
+                                    ? LimitType.OPERATIONS : LimitType.BLOCKS;
+                            outcome.complete(new LimitCheckResult(false, limitType, playerGroup, null,
+                                    new DailyUsageInfo(maxBlocks, maxOperations, usage.blocksUsed, usage.operationsUsed, playerGroup)));
+                        });
+                return;
+            }
+
+            Reservation reservation = new Reservation(playerId, today, playerGroup, blockCount);
+            openReservations.add(reservation);
+            if (!outcome.complete(new LimitCheckResult(true, LimitType.NONE, playerGroup, reservation, cached.usage))) {
+                // Answered after the timeout, the command already went ahead on the cached result
+                release(reservation);
+            }
+        });
+
+        CompletableFuture.delayedExecutor(reserveTimeoutMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            if (outcome.complete(cached)) {
+                plugin.getLogger().warning("Daily limit reservation for " + playerName + " timed out, using cached usage");
+            }
+        });
+
+        return outcome;
+    }
+
+    /**
+     * Settles a reservation with the number of blocks actually changed. Zero blocks releases it instead.
+     */
+    public void commit(Player player, Reservation reservation, int blocksUsed) {
+        if (reservation == null || !reservation.settle()) {
+            return;
+        }
+        openReservations.remove(reservation);
+
+        if (blocksUsed <= 0) {
+            releaseInDatabase(reservation);
+            return;
+        }
+
+        recordStats(reservation.playerId, blocksUsed);
+        usageCache.add(reservation.playerId, reservation.date, blocksUsed, 1, reservation.playerGroup);
+        trackInFlight(reservation.playerId, reservation.date, blocksUsed, 1);
+
+        limitedWrite("commit_reservation", AdaptiveConcurrencyLimiter.Priority.NORMAL, () -> databaseManager.commitDailyReservation(
+                        reservation.playerId, reservation.date, reservation.playerGroup, reservation.blocks, blocksUsed))
+                .exceptionally(throwable -> false)
+                .thenAccept(success -> {
+                    trackInFlight(reservation.playerId, reservation.date, -blocksUsed, -1);
+                    if (!success) {
+                        // The usage still has to count; the reservation expires after daily-limits.reservation-ttl
+                        plugin.getLogger().warning("Could not commit daily limit reservation for " +
+                                (player != null ? player.getName() : reservation.playerId) + ", queueing usage instead");
+                        requeue(reservation.playerId, new PendingUpdate(blocksUsed, 1, reservation.playerGroup, reservation.date));
+                    }
+                });
+    }
+
+    public void release(Reservation reservation) {
+        if (reservation == null || !reservation.settle()) {
+            return;
+        }
+        openReservations.remove(reservation);
+        releaseInDatabase(reservation);
+    }
+
+    private void releaseInDatabase(Reservation reservation) {
+        limitedWrite("release_reservation", AdaptiveConcurrencyLimiter.Priority.NORMAL, () -> databaseManager.releaseDailyReservation(
+                reservation.playerId, reservation.date, reservation.blocks))
+                .exceptionally(throwable -> {
+                    // Left to expire after daily-limits.reservation-ttl
+                    plugin.getLogger().warning("Could not release daily limit reservation for " + reservation.playerId + ": " +
+                            throwable.getMessage());
+                    return false;
+                });
     }
 
     public boolean canPerformOperation(Player player, int blockCount) {
@@ -109,17 +270,23 @@ public class DailyLimitManager {
     }
 
     public void recordUsage(Player player, int blockCount) {
+        UUID playerId = player.getUniqueId();
+        recordStats(playerId, blockCount);
+
         if (!isDailyLimitsEnabled()) {
             return;
         }
 
-        UUID playerId = player.getUniqueId();
         String playerGroup = getPlayerGroup(player);
         String today = getCurrentDate();
 
-        PendingUpdate update = pendingUpdates.compute(playerId, (uuid, existing) -> {
+        pendingUpdates.compute(playerId, (uuid, existing) -> {
             if (existing == null) {
                 return new PendingUpdate(blockCount, 1, playerGroup, today);
+            } else if (!existing.date.equals(today)) {
+                // The day rolled over before the last flush; yesterday's usage keeps its own date
+                lateUpdates.add(Map.entry(uuid, existing));
+                return new PendingUpdate(blockCount, 1, playerGroup, today);
             } else {
                 existing.blockCount += blockCount;
                 existing.operationCount += 1;
@@ -128,7 +295,31 @@ public class DailyLimitManager {
             }
         });
 
-        updateCache(playerId, today, update.blockCount, update.operationCount, playerGroup);
+        usageCache.add(playerId, today, blockCount, 1, playerGroup);
+    }
+
+    private void recordStats(UUID playerId, int blockCount) {
+        pendingStats.compute(playerId, (uuid, existing) -> {
+            if (existing == null) {
+                return new PendingStats(blockCount, 1);
+            }
+            existing.blocks += blockCount;
+            existing.operations += 1;
+            return existing;
+        });
+
+        LeaderboardManager leaderboardManager = ManagerRegistry.leaderboard();
+        if (leaderboardManager != null) {
+            leaderboardManager.applyDelta(playerId, blockCount, 1);
+        }
+    }
+
+    /**
+     * Lifetime blocks and operations recorded for the player but not yet written to player_stats, or null.
+     */
+    public long[] getPendingStats(UUID playerId) {
+        PendingStats stats = pendingStats.get(playerId);
+        return stats == null ? null : new long[]{stats.blocks, stats.operations};
     }
 
     public DailyUsageInfo getUsageInfo(Player player) {
@@ -151,37 +342,128 @@ public class DailyLimitManager {
         UUID playerId = player.getUniqueId();
         String today = getCurrentDate();
 
-        CachedUsageData cached = usageCache.get(playerId);
-        if (cached != null && !cached.isExpired() && cached.date.equals(today)) {
-            return CompletableFuture.completedFuture(cached.usageData);
+        UsageData cached = usageCache.get(playerId, today);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
         }
 
-        return databaseManager.getDailyUsage(playerId, today)
+        return loadUsage(playerId, today)
+                .exceptionally(throwable -> {
+                    plugin.getLogger().warning("Error loading usage data for " + player.getName() + ": " + throwable.getMessage());
+                    return new UsageData(0, 0, getPlayerGroup(player));
+                });
+    }
+
+    /**
+     * Loads the stored usage and adds what is still waiting in pendingUpdates, then caches the result.
+     */
+    private CompletableFuture<UsageData> loadUsage(UUID playerId, String today) {
+        return limitedRead("usage_read", AdaptiveConcurrencyLimiter.Priority.HIGH, () -> databaseManager.getDailyUsage(playerId, today))
                 .thenApply(dbData -> {
                     UsageData usage = new UsageData(dbData.blocksUsed, dbData.operationsUsed, dbData.playerGroup);
 
-                    usageCache.put(playerId, new CachedUsageData(usage, today, System.currentTimeMillis()));
+                    PendingUpdate pending = pendingUpdates.get(playerId);
+                    if (pending != null && pending.date.equals(today)) {
+                        usage.blocksUsed += pending.blockCount;
+                        usage.operationsUsed += pending.operationCount;
+                    }
 
+                    usageCache.put(playerId, today, usage);
                     return usage;
+                });
+    }
+
+    /**
+     * Called from AsyncPlayerPreLoginEvent so the first limit check after joining is a cache hit.
+     * Blocks the login thread for at most two seconds.
+     */
+    public void warmup(UUID playerId) {
+        if (!isDailyLimitsEnabled()) {
+            return;
+        }
+
+        String today = getCurrentDate();
+        if (usageCache.get(playerId, today) != null) {
+            return;
+        }
+
+        loadUsage(playerId, today)
+                .completeOnTimeout(null, 2, TimeUnit.SECONDS)
+                .exceptionally(throwable -> {
+                    plugin.getLogger().warning("Error warming usage cache for " + playerId + ": " + throwable.getMessage());
+                    return null;
                 })
+                .join();
+    }
+
+    /**
+     * Writes the player's pending usage immediately and drops the cache entry once it is stored.
+     */
+    public void handleQuit(UUID playerId) {
+        PendingUpdate update = pendingUpdates.remove(playerId);
+        if (update == null) {
+            usageCache.invalidate(playerId);
+            return;
+        }
+
+        flushUpdates(List.of(Map.entry(playerId, update))).whenComplete((success, throwable) -> usageCache.invalidate(playerId));
+    }
+
+    /**
+     * Sends the deltas as one batched increment. If the write fails they are merged back into pendingUpdates.
+     */
+    private CompletableFuture<Boolean> flushUpdates(List<Map.Entry<UUID, PendingUpdate>> updates) {
+        long now = System.currentTimeMillis();
+        List<DatabaseManager.DailyUsageData> deltas = new ArrayList<>(updates.size());
+        for (Map.Entry<UUID, PendingUpdate> entry : updates) {
+            PendingUpdate update = entry.getValue();
+            deltas.add(new DatabaseManager.DailyUsageData(
+                    entry.getKey(), update.date, update.blockCount, update.operationCount, update.playerGroup, now));
+            trackInFlight(entry.getKey(), update.date, update.blockCount, update.operationCount);
+        }
+
+        return limitedWrite("usage_batch", AdaptiveConcurrencyLimiter.Priority.NORMAL, () -> databaseManager.batchIncrementDailyUsage(deltas))
                 .exceptionally(throwable -> {
-                    plugin.getLogger().warning("Error loading usage data for " + player.getName() + ": " + throwable.getMessage());
-                    return new UsageData(0, 0, getPlayerGroup(player));
+                    plugin.getLogger().warning("Error writing daily usage batch: " + throwable.getMessage());
+                    return false;
+                })
+                .thenApply(success -> {
+                    if (!success) {
+                        updates.forEach(entry -> requeue(entry.getKey(), entry.getValue()));
+                    }
+                    // After the requeue, so the usage is counted in one place or the other at every point
+                    updates.forEach(entry -> trackInFlight(entry.getKey(), entry.getValue().date,
+                            -entry.getValue().blockCount, -entry.getValue().operationCount));
+                    return success;
                 });
     }
 
-    private void updateCache(UUID playerId, String date, int additionalBlocks, int additionalOps, String group) {
-        usageCache.compute(playerId, (uuid, existing) -> {
-            if (existing == null || !existing.date.equals(date)) {
-                return new CachedUsageData(new UsageData(additionalBlocks, additionalOps, group),
-                        date, System.currentTimeMillis());
-            } else {
-                existing.usageData.blocksUsed += additionalBlocks;
-                existing.usageData.operationsUsed += additionalOps;
-                existing.usageData.playerGroup = group;
-                existing.cacheTime = System.currentTimeMillis();
-                return existing;
+    private void trackInFlight(UUID playerId, String date, int blocks, int operations) {
+        inFlightUsage.compute(Map.entry(playerId, date), (key, totals) -> {
+            int[] updated = totals != null ? totals : new int[2];
+            updated[0] += blocks;
+            updated[1] += operations;
+            return updated[0] == 0 && updated[1] == 0 ? null : updated;
+        });
+    }
+
+    private void requeue(UUID playerId, PendingUpdate failed) {
+        if (!failed.date.equals(getCurrentDate())) {
+            plugin.getLogger().warning("Retrying " + failed.blockCount + " blocks of daily usage from " + failed.date +
+                    " for " + playerId + " with the next flush");
+            lateUpdates.add(Map.entry(playerId, failed));
+            return;
+        }
+
+        pendingUpdates.merge(playerId, failed, (current, old) -> {
+            if (!current.date.equals(old.date)) {
+                // current is from an earlier day than the failed batch; it still has to be written for that day
+                lateUpdates.add(Map.entry(playerId, current));
+                return old;
             }
+            current.blockCount += old.blockCount;
+            current.operationCount += old.operationCount;
+            return current;
         });
     }
 
@@ -189,9 +471,13 @@ public class DailyLimitManager {
         batchUpdateTask = new BukkitRunnable() {
             @Override
             public void run() {
-                if (!pendingUpdates.isEmpty()) {
+                if (!pendingUpdates.isEmpty() || !lateUpdates.isEmpty()) {
                     processPendingUpdates();
                 }
+                if (!pendingStats.isEmpty()) {
+                    processPendingStats();
+                }
+                usageCache.purgeExpired();
             }
         };
 
@@ -199,31 +485,161 @@ public class DailyLimitManager {
     }
 
     private CompletableFuture<Void> processPendingUpdates() {
-        if (pendingUpdates.isEmpty()) return CompletableFuture.completedFuture(null);
+        if (pendingUpdates.isEmpty() && lateUpdates.isEmpty()) return CompletableFuture.completedFuture(null);
+
+        // remove() per key so that usage recorded while draining is never lost
+        List<Map.Entry<UUID, PendingUpdate>> updates = new ArrayList<>();
+        for (UUID playerId : pendingUpdates.keySet()) {
+            PendingUpdate update = pendingUpdates.remove(playerId);
+            if (update != null) {
+                updates.add(Map.entry(playerId, update));
+            }
+        }
+        Map.Entry<UUID, PendingUpdate> late;
+        while ((late = lateUpdates.poll()) != null) {
+            updates.add(late);
+        }
 
-        var updates = new ConcurrentHashMap<>(pendingUpdates);
-        pendingUpdates.clear();
+        plugin.getLogger().fine("Processing " + updates.size() + " pending daily limit updates");
+        return flushUpdates(updates).thenAccept(success -> { });
+    }
 
-        CompletableFuture<?>[] futures = updates.entrySet().stream().map(entry -> {
-            UUID playerId = entry.getKey();
-            PendingUpdate update = entry.getValue();
+    private CompletableFuture<Void> processPendingStats() {
+        List<DatabaseManager.PlayerStats> deltas = new ArrayList<>();
+        Map<UUID, PendingStats> drained = new HashMap<>();
+        long now = System.currentTimeMillis();
+
+        for (UUID playerId : pendingStats.keySet()) {
+            PendingStats stats = pendingStats.remove(playerId);
+            if (stats != null) {
+                drained.put(playerId, stats);
+                deltas.add(new DatabaseManager.PlayerStats(playerId, stats.blocks, stats.operations, 0, "STONE", now, now));
+            }
+        }
+
+        if (deltas.isEmpty()) return CompletableFuture.completedFuture(null);
+
+        return limitedWrite("stats_batch", AdaptiveConcurrencyLimiter.Priority.LOW, () -> databaseManager.batchIncrementPlayerStats(deltas))
+                .exceptionally(throwable -> {
+                    plugin.getLogger().warning("Error writing player stats batch: " + throwable.getMessage());
+                    return false;
+                })
+                .thenAccept(success -> {
+                    if (!success) {
+                        drained.forEach((playerId, stats) -> pendingStats.merge(playerId, stats, (current, old) -> {
+                            current.blocks += old.blocks;
+                            current.operations += old.operations;
+                            return current;
+                        }));
+                    }
+                });
+    }
+
+    /**
+     * Database calls go through the async manager's limiter: limit checks and reservations at HIGH, usage
+     * flushes and settles at NORMAL, stats, polling and cleanup at LOW, so background work is deferred or
+     * shed before player-facing work when the database is struggling. Falls back to a direct call during
+     * shutdown or when the async manager is not running.
+     */
+    private <T> CompletableFuture<T> limitedRead(String operationType, AdaptiveConcurrencyLimiter.Priority priority,
+                                                 Supplier<CompletableFuture<T>> call) {
+        AsyncDatabaseManager asyncDatabase = ManagerRegistry.asyncDatabase();
+        if (asyncDatabase == null || shuttingDown) {
+            return call.get();
+        }
+        return asyncDatabase.readAsync(operationType, priority, call);
+    }
+
+    private <T> CompletableFuture<T> limitedWrite(String operationType, AdaptiveConcurrencyLimiter.Priority priority,
+                                                  Supplier<CompletableFuture<T>> call) {
+        AsyncDatabaseManager asyncDatabase = ManagerRegistry.asyncDatabase();
+        if (asyncDatabase == null || shuttingDown) {
+            return call.get();
+        }
+        return asyncDatabase.writeAsync(operationType, priority, call);
+    }
+
+    /**
+     * Other servers sharing the database flush usage this server's cache never sees. Instead of a shorter TTL,
+     * one query per interval asks for the rows changed since the last poll and refreshes only the cached
+     * players among them. The poll starts a little before the cursor so rows committed slightly out of
+     * version order are still picked up.
+     */
+    private void startCoherenceTask() {
+        if (!isDailyLimitsEnabled() || !databaseManager.supportsChangeTracking() ||
+                !plugin.getConfig().getBoolean("daily-limits.coherence.enabled", true)) {
+            return;
+        }
+
+        long interval = Math.max(1, plugin.getConfig().getLong("daily-limits.coherence.poll-interval", 5)) * 20L;
+        coherenceTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                pollChangedUsage();
+            }
+        };
+        coherenceTask.runTaskTimerAsynchronously(plugin, interval, interval);
+    }
+
+    private void pollChangedUsage() {
+        if (!pollRunning.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            if (versionCursor < 0) {
+                versionCursor = limitedRead("usage_poll", AdaptiveConcurrencyLimiter.Priority.LOW,
+                                () -> databaseManager.getDailyUsageChangedSince(getCurrentDate(), -1, "", 0))
+                        .get(10, TimeUnit.SECONDS).latestVersion;
+                return;
+            }
 
-            return databaseManager.getDailyUsage(playerId, update.date)
-                    .thenCompose(currentData -> {
-                        int newBlocksUsed = currentData.blocksUsed + update.blockCount;
-                        int newOperationsUsed = currentData.operationsUsed + update.operationCount;
+            long overlapMicros = plugin.getConfig().getLong("daily-limits.coherence.overlap-ms", 2000) * 1000L;
+            int pageSize = Math.max(100, plugin.getConfig().getInt("daily-limits.coherence.page-size", 1000));
+            String today = getCurrentDate();
+
+            long since = Math.max(0, versionCursor - overlapMicros);
+            String afterPlayerId = "";
+            long highest = versionCursor;
+
+            // A handful of pages per poll; anything left is picked up by the next one
+            for (int page = 0; page < 10; page++) {
+                long pageSince = since;
+                String pageAfter = afterPlayerId;
+                DatabaseManager.UsageChanges changes = limitedRead("usage_poll", AdaptiveConcurrencyLimiter.Priority.LOW,
+                                () -> databaseManager.getDailyUsageChangedSince(today, pageSince, pageAfter, pageSize))
+                        .get(10, TimeUnit.SECONDS);
+
+                // The stored row plus this server's usage that has not reached it yet. A write that committed just
+                // before the read is briefly counted twice, which only errs towards denying until the next poll.
+                for (DatabaseManager.DailyUsageData row : changes.rows) {
+                    PendingUpdate pending = pendingUpdates.get(row.playerId);
+                    int[] inFlight = inFlightUsage.get(Map.entry(row.playerId, today));
+                    int blocks = row.blocksUsed + (inFlight != null ? inFlight[0] : 0);
+                    int operations = row.operationsUsed + (inFlight != null ? inFlight[1] : 0);
+                    if (pending != null && pending.date.equals(today)) {
+                        blocks += pending.blockCount;
+                        operations += pending.operationCount;
+                    }
+                    usageCache.replace(row.playerId, today, blocks, operations);
+                }
 
-                        return databaseManager.updateDailyUsage(playerId, update.date,
-                                newBlocksUsed, newOperationsUsed, update.playerGroup);
-                    })
-                    .exceptionally(throwable -> {
-                        plugin.getLogger().warning("Error updating daily usage for " + playerId + ": " + throwable.getMessage());
-                        return false;
-                    });
-        }).toArray(CompletableFuture[]::new);
+                highest = Math.max(highest, changes.latestVersion);
+                if (!changes.hasMore) {
+                    break;
+                }
+                since = changes.latestVersion;
+                afterPlayerId = changes.latestPlayerId;
+            }
 
-        plugin.getLogger().fine("Processed " + updates.size() + " pending daily limit updates");
-        return CompletableFuture.allOf(futures);
+            versionCursor = highest;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            plugin.getLogger().warning("Usage cache coherence poll failed: " + e.getMessage());
+        } finally {
+            pollRunning.set(false);
+        }
     }
 
     private void startCleanupTask() {
@@ -237,8 +653,10 @@ public class DailyLimitManager {
         new BukkitRunnable() {
             @Override
             public void run() {
-                databaseManager.cleanupOldData(retentionDays).thenAccept(success -> {
-                    if (success) {
+                limitedWrite("cleanup", AdaptiveConcurrencyLimiter.Priority.LOW, () -> databaseManager.cleanupOldData(retentionDays)).whenComplete((success, throwable) -> {
+                    if (throwable != null) {
+                        plugin.getLogger().warning("Daily limit data cleanup skipped: " + throwable.getMessage());
+                    } else if (success) {
                         plugin.getLogger().info("Daily limit data cleanup completed");
                     }
                 });
@@ -252,9 +670,9 @@ public class DailyLimitManager {
         UUID playerId = player.getUniqueId();
         String today = getCurrentDate();
 
-        databaseManager.resetDailyUsage(playerId, today).thenAccept(success -> {
+        limitedWrite("usage_reset", AdaptiveConcurrencyLimiter.Priority.NORMAL, () -> databaseManager.resetDailyUsage(playerId, today)).thenAccept(success -> {
             if (success) {
-                usageCache.remove(playerId);
+                usageCache.invalidate(playerId);
                 pendingUpdates.remove(playerId);
 
                 plugin.getLogger().info("Reset daily limits for player: " + player.getName());
@@ -270,31 +688,55 @@ public class DailyLimitManager {
 
         getUsageAsync(player).thenCompose(currentUsage -> {
             int newBlocksUsed = Math.max(0, currentUsage.blocksUsed - bonusBlocks);
-            return databaseManager.updateDailyUsage(playerId, today, newBlocksUsed,
-                    currentUsage.operationsUsed, currentUsage.playerGroup);
+            return limitedWrite("usage_update", AdaptiveConcurrencyLimiter.Priority.NORMAL, () -> databaseManager.updateDailyUsage(
+                    playerId, today, newBlocksUsed, currentUsage.operationsUsed, currentUsage.playerGroup));
         }).thenAccept(success -> {
             if (success) {
-                usageCache.remove(playerId);
+                usageCache.invalidate(playerId);
                 plugin.getLogger().info("Gave " + bonusBlocks + " bonus blocks to " + player.getName());
             }
         });
     }
 
     public void shutdown() {
+        shuttingDown = true;
         if (batchUpdateTask != null) {
             batchUpdateTask.cancel();
         }
+        if (coherenceTask != null) {
+            coherenceTask.cancel();
+        }
+
+        if (!openReservations.isEmpty()) {
+            List<CompletableFuture<Boolean>> releases = new ArrayList<>();
+            for (Reservation reservation : new ArrayList<>(openReservations)) {
+                if (reservation.settle()) {
+                    releases.add(databaseManager.releaseDailyReservation(reservation.playerId, reservation.date, reservation.blocks));
+                }
+            }
+            openReservations.clear();
+            try {
+                CompletableFuture.allOf(releases.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Failed to release " + releases.size() + " daily limit reservations: " + e.getMessage());
+            }
+        }
 
-        if (!pendingUpdates.isEmpty()) {
-            plugin.getLogger().info("Processing remaining " + pendingUpdates.size() + " daily limit updates...");
+        if (!pendingUpdates.isEmpty() || !lateUpdates.isEmpty() || !pendingStats.isEmpty()) {
+            plugin.getLogger().info("Processing remaining " + (pendingUpdates.size() + lateUpdates.size()) + " daily limit updates...");
             try {
-                processPendingUpdates().get(10, java.util.concurrent.TimeUnit.SECONDS);
+                CompletableFuture.allOf(processPendingUpdates(), processPendingStats())
+                        .get(10, java.util.concurrent.TimeUnit.SECONDS);
                 plugin.getLogger().info("Remaining daily limit updates flushed");
             } catch (Exception e) {
                 plugin.getLogger().warning("Failed to flush pending daily limit updates within timeout: " + e.getMessage());
             }
         }
-        // DB shutdown'ı burada yapmıyoruz; LeafWE.onDisable() kendisi databaseManager.shutdown().join() çağırıyor.
+        // DB'yi kapatmıyoruz; sadece referansı bırakıyoruz, kapanışı DatabaseService yapıyor.
+        DatabaseService databaseService = ManagerRegistry.databaseService();
+        if (databaseService != null) {
+            databaseService.release(DailyLimitManager.class.getSimpleName());
+        }
     }
 
     private String getPlayerGroup(Player player) {
@@ -344,7 +786,7 @@ public class DailyLimitManager {
     private static class CachedUsageData {
         final UsageData usageData;
         final String date;
-        long cacheTime;
+        final long cacheTime;
 
         CachedUsageData(UsageData usageData, String date, long cacheTime) {
             this.usageData = usageData;
@@ -352,8 +794,77 @@ public class DailyLimitManager {
             this.cacheTime = cacheTime;
         }
 
-        boolean isExpired() {
-            return System.currentTimeMillis() - cacheTime > 5 * 60 * 1000;
+        boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - cacheTime > ttlMillis;
+        }
+    }
+
+    /**
+     * LRU cache bounded by entry count; entries also expire after a fixed time since they were loaded.
+     */
+    private static class UsageCache {
+        private final long ttlMillis;
+        private final LinkedHashMap<UUID, CachedUsageData> entries;
+
+        UsageCache(int maxSize, long ttlMillis) {
+            this.ttlMillis = ttlMillis;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, CachedUsageData> eldest) {
+                    return size() > Math.max(1, maxSize);
+                }
+            };
+        }
+
+        synchronized UsageData get(UUID playerId, String date) {
+            CachedUsageData cached = entries.get(playerId);
+            if (cached == null) {
+                return null;
+            }
+
+            if (cached.isExpired(ttlMillis) || !cached.date.equals(date)) {
+                entries.remove(playerId);
+                return null;
+            }
+
+            UsageData usage = cached.usageData;
+            return new UsageData(usage.blocksUsed, usage.operationsUsed, usage.playerGroup);
+        }
+
+        synchronized void put(UUID playerId, String date, UsageData usage) {
+            entries.put(playerId, new CachedUsageData(usage, date, System.currentTimeMillis()));
+        }
+
+        /**
+         * Only updates an existing entry; a missing entry is loaded from the database on the next read.
+         */
+        synchronized void add(UUID playerId, String date, int blocks, int operations, String group) {
+            CachedUsageData cached = entries.get(playerId);
+            if (cached != null && cached.date.equals(date)) {
+                cached.usageData.blocksUsed += blocks;
+                cached.usageData.operationsUsed += operations;
+                cached.usageData.playerGroup = group;
+            }
+        }
+
+        /**
+         * Sets an existing entry to the given totals. They can be lower than the cached ones: an admin reset or
+         * bonus on another server lowers the stored usage.
+         */
+        synchronized void replace(UUID playerId, String date, int blocks, int operations) {
+            CachedUsageData cached = entries.get(playerId);
+            if (cached != null && cached.date.equals(date)) {
+                cached.usageData.blocksUsed = blocks;
+                cached.usageData.operationsUsed = operations;
+            }
+        }
+
+        synchronized void invalidate(UUID playerId) {
+            entries.remove(playerId);
+        }
+
+        synchronized void purgeExpired() {
+            entries.values().removeIf(cached -> cached.isExpired(ttlMillis));
         }
     }
 
@@ -371,6 +882,16 @@ public class DailyLimitManager {
         }
     }
 
+    private static class PendingStats {
+        long blocks;
+        long operations;
+
+        PendingStats(long blocks, long operations) {
+            this.blocks = blocks;
+            this.operations = operations;
+        }
+    }
+
     public static class DailyUsageInfo {
         public final int maxBlocks;
         public final int maxOperations;
@@ -399,11 +920,44 @@ public class DailyLimitManager {
         public final boolean canPerform;
         public final LimitType limitType;
         public final String playerGroup;
+        // Set by reserve() when the database accepted the reservation
+        public final Reservation reservation;
+        // Usage the decision was based on, for the denial message; null when limits are off
+        public final DailyUsageInfo usage;
 
         public LimitCheckResult(boolean canPerform, LimitType limitType, String playerGroup) {
+            this(canPerform, limitType, playerGroup, null, null);
+        }
+
+        public LimitCheckResult(boolean canPerform, LimitType limitType, String playerGroup, Reservation reservation,
+                                DailyUsageInfo usage) {
             this.canPerform = canPerform;
             this.limitType = limitType;
             this.playerGroup = playerGroup;
+            this.reservation = reservation;
+            this.usage = usage;
+        }
+    }
+
+    /**
+     * Blocks and one operation held in daily_usage.reserved_* until the task commits or releases them.
+     */
+    public static class Reservation {
+        public final UUID playerId;
+        public final String date;
+        public final String playerGroup;
+        public final int blocks;
+        private final AtomicBoolean settled = new AtomicBoolean(false);
+
+        Reservation(UUID playerId, String date, String playerGroup, int blocks) {
+            this.playerId = playerId;
+            this.date = date;
+            this.playerGroup = playerGroup;
+            this.blocks = blocks;
+        }
+
+        boolean settle() {
+            return settled.compareAndSet(false, true);
         }
     }
 
@@ -0,0 +1,274 @@
+package com.leaf.leafwe.managers;
+
+import com.leaf.leafwe.LeafWE;
+import com.leaf.leafwe.database.DatabaseManager;
+import com.leaf.leafwe.database.DatabaseService;
+import com.leaf.leafwe.registry.ManagerRegistry;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Materialized top-N lists over player_stats. Recorded usage is applied in memory as it happens: entries on a
+ * board are bumped and re-sorted, and a player not on it has their total loaded once and is inserted when it
+ * beats the last entry. The full list is re-read with an index-ordered LIMIT query on an interval; usage that
+ * is recorded but not flushed yet is added to those rows so totals never step backwards.
+ */
+public class LeaderboardManager {
+
+    public enum Category {
+        BLOCKS("total_blocks_placed"),
+        OPERATIONS("total_operations");
+
+        private final String column;
+
+        Category(String column) {
+            this.column = column;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        public static Category fromString(String name) {
+            for (Category category : values()) {
+                if (category.name().equalsIgnoreCase(name)) {
+                    return category;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final Comparator<LeaderboardEntry> BY_VALUE =
+            Comparator.comparingLong((LeaderboardEntry e) -> e.value).reversed();
+
+    private final LeafWE plugin;
+    private final DatabaseManager databaseManager;
+    private final int size;
+
+    private final Map<Category, List<LeaderboardEntry>> boards = new EnumMap<>(Category.class);
+    // Totals of players below the boards, loaded on their first recorded usage; guarded by boards
+    private final Map<UUID, long[]> outsideTotals = new HashMap<>();
+    private final Set<UUID> loadingTotals = new HashSet<>();
+    private BukkitRunnable reconcileTask;
+
+    public LeaderboardManager(LeafWE plugin) {
+        this.plugin = plugin;
+        this.databaseManager = ManagerRegistry.databaseService().acquire(LeaderboardManager.class.getSimpleName());
+        this.size = Math.max(1, plugin.getConfig().getInt("leaderboard.size", 10));
+
+        for (Category category : Category.values()) {
+            boards.put(category, List.of());
+        }
+
+        startReconcileTask();
+    }
+
+    private void startReconcileTask() {
+        long interval = Math.max(30, plugin.getConfig().getLong("leaderboard.reconcile-interval", 300)) * 20L;
+
+        reconcileTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                reconcile();
+            }
+        };
+        reconcileTask.runTaskTimerAsynchronously(plugin, 20L, interval);
+    }
+
+    public CompletableFuture<Void> reconcile() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[Category.values().length];
+
+        for (Category category : Category.values()) {
+            futures[category.ordinal()] = databaseManager.getTopPlayers(category.getColumn(), size)
+                    .thenAccept(rows -> {
+                        List<LeaderboardEntry> entries = new ArrayList<>(rows.size());
+                        for (DatabaseManager.PlayerStats row : rows) {
+                            long value = category == Category.BLOCKS ? row.totalBlocksPlaced : row.totalOperations;
+                            value += pendingValue(category, row.playerId);
+                            entries.add(new LeaderboardEntry(row.playerId, resolveName(row.playerId), value));
+                        }
+                        entries.sort(BY_VALUE);
+
+                        synchronized (boards) {
+                            boards.put(category, List.copyOf(entries));
+                            // Reloaded on the next recorded usage, the stored totals have moved on
+                            outsideTotals.clear();
+                        }
+                    })
+                    .exceptionally(throwable -> {
+                        plugin.getLogger().warning("Error refreshing " + category.name().toLowerCase() +
+                                " leaderboard: " + throwable.getMessage());
+                        return null;
+                    });
+        }
+
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Applies freshly recorded usage. Players on a board are bumped in place; anyone else is compared against
+     * the last entry once their total is known.
+     */
+    public void applyDelta(UUID playerId, long blocks, long operations) {
+        synchronized (boards) {
+            boolean onBlocks = bump(Category.BLOCKS, playerId, blocks);
+            boolean onOperations = bump(Category.OPERATIONS, playerId, operations);
+            if (onBlocks && onOperations) {
+                return;
+            }
+
+            long[] totals = outsideTotals.get(playerId);
+            if (totals != null) {
+                totals[0] += blocks;
+                totals[1] += operations;
+                offer(playerId, totals);
+                return;
+            }
+
+            if (!loadingTotals.add(playerId)) {
+                // Already loading; the pending usage read when it arrives includes this delta
+                return;
+            }
+        }
+
+        databaseManager.getPlayerStats(playerId).whenComplete((stats, throwable) -> {
+            if (throwable != null) {
+                synchronized (boards) {
+                    loadingTotals.remove(playerId);
+                }
+                return;
+            }
+
+            long[] totals = {
+                    (stats != null ? stats.totalBlocksPlaced : 0) + pendingValue(Category.BLOCKS, playerId),
+                    (stats != null ? stats.totalOperations : 0) + pendingValue(Category.OPERATIONS, playerId)
+            };
+
+            synchronized (boards) {
+                loadingTotals.remove(playerId);
+                outsideTotals.put(playerId, totals);
+                offer(playerId, totals);
+            }
+        });
+    }
+
+    /**
+     * Adds delta to the player's entry and re-sorts. Returns false if the player is not on the board.
+     */
+    private boolean bump(Category category, UUID playerId, long delta) {
+        List<LeaderboardEntry> current = boards.get(category);
+        for (int i = 0; i < current.size(); i++) {
+            LeaderboardEntry entry = current.get(i);
+            if (entry.playerId.equals(playerId)) {
+                if (delta != 0) {
+                    List<LeaderboardEntry> updated = new ArrayList<>(current);
+                    updated.set(i, new LeaderboardEntry(playerId, entry.playerName, entry.value + delta));
+                    updated.sort(BY_VALUE);
+                    boards.put(category, List.copyOf(updated));
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void offer(UUID playerId, long[] totals) {
+        String name = null;
+        for (Category category : Category.values()) {
+            long value = totals[category.ordinal()];
+            if (!contains(category, playerId) && qualifies(category, value)) {
+                if (name == null) {
+                    name = resolveName(playerId);
+                }
+                insert(category, new LeaderboardEntry(playerId, name, value));
+            }
+        }
+    }
+
+    private boolean contains(Category category, UUID playerId) {
+        for (LeaderboardEntry entry : boards.get(category)) {
+            if (entry.playerId.equals(playerId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean qualifies(Category category, long value) {
+        List<LeaderboardEntry> current = boards.get(category);
+        return value > 0 && (current.size() < size || value > current.get(current.size() - 1).value);
+    }
+
+    /**
+     * Inserts the entry, re-sorts and trims the board; whoever drops off is remembered as an outside total.
+     */
+    private void insert(Category category, LeaderboardEntry entry) {
+        List<LeaderboardEntry> updated = new ArrayList<>(boards.get(category));
+        updated.add(entry);
+        updated.sort(BY_VALUE);
+        while (updated.size() > size) {
+            LeaderboardEntry dropped = updated.remove(updated.size() - 1);
+            long[] totals = outsideTotals.get(dropped.playerId);
+            if (totals != null) {
+                totals[category.ordinal()] = dropped.value;
+            }
+        }
+        boards.put(category, List.copyOf(updated));
+    }
+
+    private long pendingValue(Category category, UUID playerId) {
+        DailyLimitManager dailyLimitManager = ManagerRegistry.dailyLimit();
+        if (dailyLimitManager == null) {
+            return 0;
+        }
+        long[] pending = dailyLimitManager.getPendingStats(playerId);
+        return pending == null ? 0 : pending[category.ordinal()];
+    }
+
+    public List<LeaderboardEntry> getTop(Category category) {
+        synchronized (boards) {
+            return boards.get(category);
+        }
+    }
+
+    private String resolveName(UUID playerId) {
+        OfflinePlayer player = Bukkit.getOfflinePlayer(playerId);
+        return player.getName() != null ? player.getName() : playerId.toString().substring(0, 8);
+    }
+
+    public void shutdown() {
+        if (reconcileTask != null) {
+            reconcileTask.cancel();
+        }
+
+        DatabaseService databaseService = ManagerRegistry.databaseService();
+        if (databaseService != null) {
+            databaseService.release(LeaderboardManager.class.getSimpleName());
+        }
+    }
+
+    public static class LeaderboardEntry {
+        public final UUID playerId;
+        public final String playerName;
+        public final long value;
+
+        public LeaderboardEntry(UUID playerId, String playerName, long value) {
+            this.playerId = playerId;
+            this.playerName = playerName;
+            this.value = value;
+        }
+    }
+}
@@ -16,6 +16,8 @@ public class PendingCommandManager {
     private final LeafWE plugin;
     private final ConcurrentHashMap<UUID, Runnable> pendingTasks = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, BukkitTask> timeoutTasks = new ConcurrentHashMap<>();
+    // Runs when a pending command is dropped without being confirmed (timeout, replaced, cleared)
+    private final ConcurrentHashMap<UUID, Runnable> discardHandlers = new ConcurrentHashMap<>();
     private final int timeoutSeconds = 30;
 
     public PendingCommandManager(LeafWE plugin) {
@@ -28,6 +30,10 @@ public class PendingCommandManager {
     }
 
     public void setPending(Player player, Runnable task) {
+        setPending(player, task, null);
+    }
+
+    public void setPending(Player player, Runnable task, Runnable onDiscard) {
         if (player == null || task == null) return;
 
         UUID playerUUID = player.getUniqueId();
@@ -35,11 +41,15 @@ public class PendingCommandManager {
         clear(player);
 
         pendingTasks.put(playerUUID, task);
+        if (onDiscard != null) {
+            discardHandlers.put(playerUUID, onDiscard);
+        }
 
         BukkitTask timeout = new BukkitRunnable() {
             @Override
             public void run() {
                 if (pendingTasks.remove(playerUUID) != null) {
+                    runDiscardHandler(playerUUID);
                     if (player.isOnline()) {
                         player.sendMessage(plugin.getConfigManager().getMessage("confirmation-expired"));
                     }
@@ -58,6 +68,7 @@ public class PendingCommandManager {
         Runnable task = pendingTasks.remove(playerUUID);
 
         if (task != null) {
+            discardHandlers.remove(playerUUID);
             BukkitTask timeoutTask = timeoutTasks.remove(playerUUID);
             if (timeoutTask != null) {
                 timeoutTask.cancel();
@@ -79,7 +90,9 @@ public class PendingCommandManager {
         if (player == null) return;
 
         UUID playerUUID = player.getUniqueId();
-        pendingTasks.remove(playerUUID);
+        if (pendingTasks.remove(playerUUID) != null) {
+            runDiscardHandler(playerUUID);
+        }
 
         BukkitTask timeoutTask = timeoutTasks.remove(playerUUID);
         if (timeoutTask != null && !timeoutTask.isCancelled()) {
@@ -96,6 +109,20 @@ public class PendingCommandManager {
 
         pendingTasks.clear();
         timeoutTasks.clear();
+        for (UUID playerUUID : discardHandlers.keySet()) {
+            runDiscardHandler(playerUUID);
+        }
+    }
+
+    private void runDiscardHandler(UUID playerUUID) {
+        Runnable handler = discardHandlers.remove(playerUUID);
+        if (handler != null) {
+            try {
+                handler.run();
+            } catch (Exception e) {
+                plugin.getLogger().warning("Error discarding pending command: " + e.getMessage());
+            }
+        }
     }
 
     public int getPendingCount() {
@@ -2,107 +2,180 @@ package com.leaf.leafwe.managers;
 
 import com.leaf.leafwe.LeafWE;
 import com.leaf.leafwe.tasks.UndoTask;
-import com.leaf.leafwe.utils.SimpleLocation;
-import org.bukkit.Location;
-import org.bukkit.block.BlockState;
+import com.leaf.leafwe.utils.BlockChangeSet;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Per-player undo/redo stacks under one server-wide memory budget. Every stored set is also tracked in a
+ * global least-recently-used order with its estimated size; when the total goes over
+ * settings.undo-memory-budget-mb the oldest entries are dropped, whoever they belong to. A player's newest
+ * undo and redo entries are never dropped, so the last edit can always be undone.
+ */
 public class UndoManager {
     private final LeafWE plugin;
     private final ConfigManager configManager;
-    private final ConcurrentHashMap<UUID, LinkedList<Map<SimpleLocation, BlockState>>> history = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, History> history = new ConcurrentHashMap<>();
+
+    // Guards the stacks and the LRU index together, eviction touches several players at once
+    private final Object lock = new Object();
+    private final LinkedHashMap<BlockChangeSet, Tracked> lru = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes = 0;
+    private long evictedEntries = 0;
 
     public UndoManager(LeafWE plugin, ConfigManager configManager) {
         this.plugin = plugin;
         this.configManager = configManager;
     }
 
-    public void addHistory(Player player, Map<Location, BlockState> change) {
-        if (player == null || change == null || change.isEmpty()) return;
-
-        Map<SimpleLocation, BlockState> optimizedChange = new HashMap<>();
-        for (Map.Entry<Location, BlockState> entry : change.entrySet()) {
-            optimizedChange.put(SimpleLocation.from(entry.getKey()), entry.getValue());
-        }
+    public void addHistory(Player player, BlockChangeSet changeSet) {
+        if (player == null || changeSet == null || changeSet.size() == 0) return;
 
         UUID playerUUID = player.getUniqueId();
-        history.computeIfAbsent(playerUUID, k -> new LinkedList<>());
-        LinkedList<Map<SimpleLocation, BlockState>> playerHistory = history.get(playerUUID);
-
-        synchronized (playerHistory) {
-            playerHistory.push(optimizedChange);
+        History playerHistory = history.computeIfAbsent(playerUUID, k -> new History());
 
-            while (playerHistory.size() > configManager.getMaxUndo()) {
-                playerHistory.removeLast();
+        synchronized (lock) {
+            // Yeni bir değişiklik redo geçmişini geçersiz kılar
+            for (BlockChangeSet undone : playerHistory.redo) {
+                untrack(undone);
             }
+            playerHistory.redo.clear();
+            playerHistory.generation++;
+            push(playerUUID, playerHistory.undo, changeSet);
         }
     }
 
-    public boolean undoLastChange(Player player) {
-        if (player == null) return false;
+    public enum ReplayResult {
+        STARTED,
+        EMPTY,
+        // Another undo or redo of this player is still running
+        BUSY,
+        WORLD_MISSING,
+        FAILED
+    }
+
+    public ReplayResult undoLastChange(Player player) {
+        return replay(player, false);
+    }
+
+    public ReplayResult redoLastChange(Player player) {
+        return replay(player, true);
+    }
+
+    /**
+     * Pops the newest set from the undo (or redo) stack and restores it. When the task ends, the inverse,
+     * which now carries the after-images, is pushed onto the opposite stack, unless the player made a new
+     * edit in the meantime: that edit already cleared redo, and the inverse would overwrite it. Only one
+     * replay per player runs at a time, so the inverses are stacked in the order the edits were made.
+     */
+    private ReplayResult replay(Player player, boolean redo) {
+        if (player == null) return ReplayResult.EMPTY;
 
         UUID playerUUID = player.getUniqueId();
-        LinkedList<Map<SimpleLocation, BlockState>> playerHistory = history.get(playerUUID);
+        History playerHistory = history.get(playerUUID);
+        if (playerHistory == null) return ReplayResult.EMPTY;
+
+        BlockChangeSet changeSet;
+        long generation;
+        synchronized (lock) {
+            if (playerHistory.replaying) return ReplayResult.BUSY;
+            LinkedList<BlockChangeSet> stack = redo ? playerHistory.redo : playerHistory.undo;
+            if (stack.isEmpty()) return ReplayResult.EMPTY;
+            changeSet = stack.pop();
+            untrack(changeSet);
+            generation = playerHistory.generation;
 
-        if (playerHistory == null || playerHistory.isEmpty()) {
-            return false;
+            if (changeSet.getWorld() == null) return ReplayResult.WORLD_MISSING;
+            playerHistory.replaying = true;
         }
 
-        Map<SimpleLocation, BlockState> lastChange;
-        synchronized (playerHistory) {
-            if (playerHistory.isEmpty()) return false;
-            lastChange = playerHistory.pop();
+        try {
+            UndoTask undoTask = new UndoTask(player, changeSet, redo, configManager, finished -> {
+                synchronized (lock) {
+                    playerHistory.replaying = false;
+                    if (history.get(playerUUID) != playerHistory || playerHistory.generation != generation) return;
+                    push(playerUUID, redo ? playerHistory.undo : playerHistory.redo, finished.inverse());
+                }
+            });
+            undoTask.runTaskTimer(plugin, 1L, 1L);
+            return ReplayResult.STARTED;
+        } catch (Exception e) {
+            synchronized (lock) {
+                playerHistory.replaying = false;
+            }
+            plugin.getLogger().warning("Error starting " + (redo ? "redo" : "undo") + " task for player " + player.getName() + ": " + e.getMessage());
+            return ReplayResult.FAILED;
         }
+    }
 
-        if (lastChange == null || lastChange.isEmpty()) {
-            return false;
+    private void push(UUID owner, LinkedList<BlockChangeSet> stack, BlockChangeSet changeSet) {
+        stack.push(changeSet);
+        Tracked tracked = new Tracked(owner, changeSet.estimatedBytes());
+        lru.put(changeSet, tracked);
+        totalBytes += tracked.bytes;
+
+        while (stack.size() > configManager.getMaxUndo()) {
+            untrack(stack.removeLast());
         }
 
-        Map<Location, BlockState> taskData = new HashMap<>();
-        boolean worldMissing = false;
+        enforceBudget();
+    }
+
+    private void enforceBudget() {
+        long budget = configManager.getUndoMemoryBudgetBytes();
+        if (budget <= 0) return;
 
-        for (Map.Entry<SimpleLocation, BlockState> entry : lastChange.entrySet()) {
-            Location loc = entry.getKey().toLocation();
-            if (loc != null) {
-                taskData.put(loc, entry.getValue());
-            } else {
-                worldMissing = true;
+        Iterator<Map.Entry<BlockChangeSet, Tracked>> it = lru.entrySet().iterator();
+        while (totalBytes > budget && it.hasNext()) {
+            Map.Entry<BlockChangeSet, Tracked> entry = it.next();
+            History owner = history.get(entry.getValue().owner);
+            BlockChangeSet changeSet = entry.getKey();
+
+            if (owner != null && (owner.undo.peekFirst() == changeSet || owner.redo.peekFirst() == changeSet)) {
+                continue;
             }
-        }
 
-        if (worldMissing) {
-            player.sendMessage(configManager.getMessage("undo-world-missing"));
+            if (owner != null && !owner.undo.remove(changeSet)) {
+                owner.redo.remove(changeSet);
+            }
+            it.remove();
+            totalBytes -= entry.getValue().bytes;
+            evictedEntries++;
         }
+    }
 
-        if (taskData.isEmpty()) {
-            return false;
+    private void untrack(BlockChangeSet changeSet) {
+        Tracked tracked = lru.remove(changeSet);
+        if (tracked != null) {
+            totalBytes -= tracked.bytes;
         }
+    }
 
-        try {
-            UndoTask undoTask = new UndoTask(player, taskData, configManager);
-            undoTask.runTaskTimer(plugin, 1L, 1L);
-            return true;
-        } catch (Exception e) {
-            plugin.getLogger().warning("Error starting undo task for player " + player.getName() + ": " + e.getMessage());
-            return false;
+    private void untrackAll(History playerHistory) {
+        for (BlockChangeSet changeSet : playerHistory.undo) {
+            untrack(changeSet);
+        }
+        for (BlockChangeSet changeSet : playerHistory.redo) {
+            untrack(changeSet);
         }
+        playerHistory.undo.clear();
+        playerHistory.redo.clear();
     }
 
     public void clearHistory(Player player) {
         if (player == null) return;
 
-        UUID playerUUID = player.getUniqueId();
-        LinkedList<Map<SimpleLocation, BlockState>> playerHistory = history.remove(playerUUID);
+        History playerHistory = history.remove(player.getUniqueId());
 
         if (playerHistory != null) {
-            synchronized (playerHistory) {
-                playerHistory.clear();
+            synchronized (lock) {
+                untrackAll(playerHistory);
             }
         }
     }
@@ -110,11 +183,22 @@ public class UndoManager {
     public int getHistorySize(Player player) {
         if (player == null) return 0;
 
-        LinkedList<Map<SimpleLocation, BlockState>> playerHistory = history.get(player.getUniqueId());
+        History playerHistory = history.get(player.getUniqueId());
+        if (playerHistory == null) return 0;
+
+        synchronized (lock) {
+            return playerHistory.undo.size();
+        }
+    }
+
+    public int getRedoSize(Player player) {
+        if (player == null) return 0;
+
+        History playerHistory = history.get(player.getUniqueId());
         if (playerHistory == null) return 0;
 
-        synchronized (playerHistory) {
-            return playerHistory.size();
+        synchronized (lock) {
+            return playerHistory.redo.size();
         }
     }
 
@@ -122,29 +206,70 @@ public class UndoManager {
         return getHistorySize(player) > 0;
     }
 
+    public long getMemoryUsage() {
+        synchronized (lock) {
+            return totalBytes;
+        }
+    }
+
+    public int getEntryCount() {
+        synchronized (lock) {
+            return lru.size();
+        }
+    }
+
+    public long getEvictedCount() {
+        synchronized (lock) {
+            return evictedEntries;
+        }
+    }
+
     /**
      * Belirli bir dünyaya ait tüm undo geçmişini temizler.
      * WorldListener tarafından WorldUnloadEvent sırasında çağrılır.
      */
     public void cleanupWorldHistory(String worldName) {
-        for (LinkedList<Map<SimpleLocation, BlockState>> playerHistory : history.values()) {
-            //noinspection SynchronizationOnLocalVariableOrMethodParameter
-            synchronized (playerHistory) {
-                playerHistory.removeIf(changeMap -> {
-                    if (changeMap.isEmpty()) return true;
-                    return changeMap.keySet().iterator().next().getWorldName().equals(worldName);
-                });
+        synchronized (lock) {
+            for (History playerHistory : history.values()) {
+                playerHistory.undo.removeIf(changeSet -> removeIfWorld(changeSet, worldName));
+                playerHistory.redo.removeIf(changeSet -> removeIfWorld(changeSet, worldName));
             }
         }
     }
 
+    private boolean removeIfWorld(BlockChangeSet changeSet, String worldName) {
+        if (!worldName.equals(changeSet.getWorldName())) return false;
+        untrack(changeSet);
+        return true;
+    }
+
     public void clearAllHistory() {
-        for (LinkedList<Map<SimpleLocation, BlockState>> playerHistory : history.values()) {
-            //noinspection SynchronizationOnLocalVariableOrMethodParameter
-            synchronized (playerHistory) {
-                playerHistory.clear();
+        synchronized (lock) {
+            for (History playerHistory : history.values()) {
+                untrackAll(playerHistory);
             }
+            history.clear();
+            lru.clear();
+            totalBytes = 0;
+        }
+    }
+
+    private static class History {
+        final LinkedList<BlockChangeSet> undo = new LinkedList<>();
+        final LinkedList<BlockChangeSet> redo = new LinkedList<>();
+        // Bumped by every new edit, guarded by lock
+        long generation = 0;
+        // An UndoTask of this player is running, guarded by lock
+        boolean replaying = false;
+    }
+
+    private static class Tracked {
+        final UUID owner;
+        final long bytes;
+
+        Tracked(UUID owner, long bytes) {
+            this.owner = owner;
+            this.bytes = bytes;
         }
-        history.clear();
     }
-}
\ No newline at end of file
+}
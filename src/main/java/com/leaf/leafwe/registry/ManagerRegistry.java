@@ -5,6 +5,7 @@ import com.leaf.leafwe.gui.GuiManager;
 import com.leaf.leafwe.gui.SelectionVisualizer;
 import com.leaf.leafwe.database.AsyncDatabaseManager;
 import com.leaf.leafwe.database.DatabaseManager;
+import com.leaf.leafwe.database.DatabaseService;
 import com.leaf.leafwe.database.migration.MigrationManager;
 import com.leaf.leafwe.utils.VersionManager;
 
@@ -142,6 +143,10 @@ public class ManagerRegistry {
         return getInstance().get(DailyLimitManager.class); // Nullable - optional feature
     }
 
+    public static LeaderboardManager leaderboard() {
+        return getInstance().get(LeaderboardManager.class); // Nullable - optional feature
+    }
+
     public static SelectionVisualizer visualizer() {
         SelectionVisualizer manager = getInstance().get(SelectionVisualizer.class);
         if (manager == null) {
@@ -174,8 +179,13 @@ public class ManagerRegistry {
         return manager;
     }
 
+    public static DatabaseService databaseService() {
+        return getInstance().get(DatabaseService.class); // Nullable - optional feature
+    }
+
     public static DatabaseManager database() {
-        return getInstance().get(DatabaseManager.class); // Nullable - optional feature
+        DatabaseService service = databaseService();
+        return service != null ? service.getDatabaseManager() : null; // Nullable - optional feature
     }
 
     public static AsyncDatabaseManager asyncDatabase() {
@@ -209,7 +219,12 @@ public class ManagerRegistry {
     }
 
     public boolean isDatabaseHealthy() {
-        DatabaseManager dbManager = get(DatabaseManager.class);
+        DatabaseService service = get(DatabaseService.class);
+        if (service == null) {
+            return false;
+        }
+
+        DatabaseManager dbManager = service.getDatabaseManager();
         if (dbManager == null) {
             return false;
         }
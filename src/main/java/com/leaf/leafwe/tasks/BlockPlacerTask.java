@@ -3,6 +3,8 @@ package com.leaf.leafwe.tasks;
 import com.leaf.leafwe.LeafWE;
 import com.leaf.leafwe.gui.SelectionVisualizer;
 import com.leaf.leafwe.managers.*;
+import com.leaf.leafwe.utils.BlockChangeSet;
+import com.leaf.leafwe.utils.BlockPositions;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
@@ -19,13 +21,12 @@ import org.bukkit.inventory.meta.SkullMeta;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.EulerAngle;
 
-import java.util.List;
-
 public class BlockPlacerTask extends BukkitRunnable {
 
     private final LeafWE plugin;
     private final Player player;
-    private final List<Location> locationsToFill;
+    private final BlockPositions locationsToFill;
+    private int cursor = 0;
     private final Material material;
     private final ConfigManager configManager;
     private final SelectionVisualizer selectionVisualizer;
@@ -39,8 +40,11 @@ public class BlockPlacerTask extends BukkitRunnable {
     private boolean isRunning = true;
     private boolean isCompleted = false;
     private boolean limitsRecorded = false;
+    private DailyLimitManager.Reservation limitReservation;
+    private final BlockChangeSet.Recorder undoRecorder = new BlockChangeSet.Recorder();
+    private boolean historySaved = false;
 
-    public BlockPlacerTask(LeafWE plugin, Player player, List<Location> locations, Material material,
+    public BlockPlacerTask(LeafWE plugin, Player player, BlockPositions locations, Material material,
                            ConfigManager configManager, SelectionVisualizer visualizer,
                            TaskManager taskManager, BlockstateManager blockstateManager,
                            ProtectionManager protectionManager) {
@@ -60,12 +64,12 @@ public class BlockPlacerTask extends BukkitRunnable {
     public void run() {
         if (!isRunning) return;
 
-        if (locationsToFill.isEmpty() || !hasSafeMaterial(player, material)) {
+        if (cursor >= locationsToFill.size() || !hasSafeMaterial(player, material)) {
             finishTask();
             return;
         }
 
-        Location currentLocation = locationsToFill.remove(0);
+        Location currentLocation = locationsToFill.getLocation(cursor++);
 
         if (protectionManager != null && !protectionManager.canBuild(player, currentLocation)) {
             blocksSkipped++;
@@ -83,6 +87,8 @@ public class BlockPlacerTask extends BukkitRunnable {
         }
 
         if (currentLocation.getBlock().getType() != material) {
+            undoRecorder.record(currentLocation.getBlock());
+
             BlockData copiedData = blockstateManager.getCopiedBlockstate(player);
             if (copiedData != null && copiedData.getMaterial() == material) {
                 currentLocation.getBlock().setBlockData(copiedData, false);
@@ -137,7 +143,9 @@ public class BlockPlacerTask extends BukkitRunnable {
         taskManager.finishTask(player);
         selectionVisualizer.playSuccessEffect(player);
 
-        if (!limitsRecorded && blocksPlaced > 0) {
+        if (!limitsRecorded && limitReservation != null) {
+            settleReservation();
+        } else if (!limitsRecorded && blocksPlaced > 0) {
             DailyLimitManager dailyLimitManager = plugin.getRegistry().get(DailyLimitManager.class);
             if (dailyLimitManager != null) {
                 dailyLimitManager.recordUsage(player, blocksPlaced);
@@ -145,11 +153,12 @@ public class BlockPlacerTask extends BukkitRunnable {
             }
         }
 
-        if (!locationsToFill.isEmpty()) {
+        int remaining = locationsToFill.size() - cursor;
+        if (remaining > 0) {
             player.sendMessage(configManager.getMessage("inventory-ran-out")
                     .replaceText(config -> config.matchLiteral("%block%").replacement(material.name())));
             player.sendMessage(configManager.getMessage("process-incomplete")
-                    .replaceText(config -> config.matchLiteral("%remaining%").replacement(String.valueOf(locationsToFill.size()))));
+                    .replaceText(config -> config.matchLiteral("%remaining%").replacement(String.valueOf(remaining))));
 
             String operationText = PlainTextComponentSerializer.plainText().serialize(configManager.getProgressOperationPlacing());
             String errorText = PlainTextComponentSerializer.plainText().serialize(configManager.getProgressErrorInventory());
@@ -178,10 +187,44 @@ public class BlockPlacerTask extends BukkitRunnable {
         }
     }
 
+    /**
+     * Daily limit reservation made by the command; the task commits it with the real count when it ends.
+     */
+    public void setLimitReservation(DailyLimitManager.Reservation reservation) {
+        this.limitReservation = reservation;
+    }
+
+    private void settleReservation() {
+        DailyLimitManager dailyLimitManager = plugin.getRegistry().get(DailyLimitManager.class);
+        if (dailyLimitManager != null) {
+            dailyLimitManager.commit(player, limitReservation, blocksPlaced);
+        }
+        limitsRecorded = true;
+    }
+
+    /**
+     * Hands the blocks actually changed so far to the undo history, once.
+     */
+    private void saveHistory() {
+        if (historySaved) return;
+        historySaved = true;
+
+        UndoManager undoManager = plugin.getRegistry().get(UndoManager.class);
+        if (undoManager != null && !undoRecorder.isEmpty()) {
+            undoManager.addHistory(player, undoRecorder.build());
+        }
+    }
+
     @Override
     public synchronized void cancel() throws IllegalStateException {
         isRunning = false;
         cleanupWorker();
+        saveHistory();
+
+        // Cancelled part-way: only what was actually placed counts, the rest of the reservation is freed
+        if (!isCompleted && !limitsRecorded && limitReservation != null) {
+            settleReservation();
+        }
 
         if (player.isOnline() && !isCompleted) {
             String cancellationText = PlainTextComponentSerializer.plainText().serialize(configManager.getProgressOperationBlockPlacement());
@@ -3,6 +3,8 @@ package com.leaf.leafwe.tasks;
 import com.leaf.leafwe.gui.SelectionVisualizer;
 import com.leaf.leafwe.managers.*;
 import com.leaf.leafwe.registry.ManagerRegistry;
+import com.leaf.leafwe.utils.BlockChangeSet;
+import com.leaf.leafwe.utils.BlockPositions;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
@@ -20,11 +22,10 @@ import org.bukkit.inventory.meta.SkullMeta;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.EulerAngle;
 
-import java.util.List;
-
 public class ReplaceTask extends BukkitRunnable {
     private final Player player;
-    private final List<Location> locationsToChange;
+    private final BlockPositions locationsToChange;
+    private int cursor = 0;
     private final Material toMaterial;
     private final ConfigManager configManager;
     private final SelectionVisualizer selectionVisualizer;
@@ -38,8 +39,11 @@ public class ReplaceTask extends BukkitRunnable {
     private boolean isRunning = true;
     private boolean isCompleted = false;
     private boolean limitsRecorded = false;
+    private DailyLimitManager.Reservation limitReservation;
+    private final BlockChangeSet.Recorder undoRecorder = new BlockChangeSet.Recorder();
+    private boolean historySaved = false;
 
-    public ReplaceTask(Player player, List<Location> locationsToChange, Material toMaterial,
+    public ReplaceTask(Player player, BlockPositions locationsToChange, Material toMaterial,
                        ConfigManager configManager, SelectionVisualizer visualizer,
                        TaskManager taskManager, BlockstateManager blockstateManager,
                        ProtectionManager protectionManager) {
@@ -59,12 +63,12 @@ public class ReplaceTask extends BukkitRunnable {
         if (!isRunning) return;
 
         // Kontrol: Envanterde güvenli materyal var mı?
-        if (locationsToChange.isEmpty() || !hasSafeMaterial(player, toMaterial)) {
+        if (cursor >= locationsToChange.size() || !hasSafeMaterial(player, toMaterial)) {
             finishTask();
             return;
         }
 
-        Location currentLocation = locationsToChange.remove(0);
+        Location currentLocation = locationsToChange.getLocation(cursor++);
 
         if (protectionManager != null && !protectionManager.canBuild(player, currentLocation)) {
             blocksSkipped++;
@@ -83,6 +87,8 @@ public class ReplaceTask extends BukkitRunnable {
             worker.swingMainHand();
         }
 
+        undoRecorder.record(currentBlock);
+
         BlockData copiedData = blockstateManager.getCopiedBlockstate(player);
         if (copiedData != null && copiedData.getMaterial() == toMaterial) {
             currentBlock.setBlockData(copiedData, false);
@@ -140,7 +146,9 @@ public class ReplaceTask extends BukkitRunnable {
         taskManager.finishTask(player);
         selectionVisualizer.playSuccessEffect(player);
 
-        if (!limitsRecorded && blocksReplaced > 0) {
+        if (!limitsRecorded && limitReservation != null) {
+            settleReservation();
+        } else if (!limitsRecorded && blocksReplaced > 0) {
             DailyLimitManager dailyLimitManager = ManagerRegistry.dailyLimit();
             if (dailyLimitManager != null) {
                 dailyLimitManager.recordUsage(player, blocksReplaced);
@@ -148,11 +156,12 @@ public class ReplaceTask extends BukkitRunnable {
             }
         }
 
-        if (!locationsToChange.isEmpty()) {
+        int remaining = locationsToChange.size() - cursor;
+        if (remaining > 0) {
             player.sendMessage(configManager.getMessage("inventory-ran-out")
                     .replaceText(config -> config.matchLiteral("%block%").replacement(toMaterial.name())));
             player.sendMessage(configManager.getMessage("process-incomplete")
-                    .replaceText(config -> config.matchLiteral("%remaining%").replacement(String.valueOf(locationsToChange.size()))));
+                    .replaceText(config -> config.matchLiteral("%remaining%").replacement(String.valueOf(remaining))));
 
             String operationText = PlainTextComponentSerializer.plainText().serialize(configManager.getProgressOperationReplacing());
             String errorText = PlainTextComponentSerializer.plainText().serialize(configManager.getProgressErrorInventory());
@@ -181,10 +190,43 @@ public class ReplaceTask extends BukkitRunnable {
         }
     }
 
+    /**
+     * Daily limit reservation made by the command; the task commits it with the real count when it ends.
+     */
+    public void setLimitReservation(DailyLimitManager.Reservation reservation) {
+        this.limitReservation = reservation;
+    }
+
+    private void settleReservation() {
+        DailyLimitManager dailyLimitManager = ManagerRegistry.dailyLimit();
+        if (dailyLimitManager != null) {
+            dailyLimitManager.commit(player, limitReservation, blocksReplaced);
+        }
+        limitsRecorded = true;
+    }
+
+    /**
+     * Hands the blocks actually changed so far to the undo history, once.
+     */
+    private void saveHistory() {
+        if (historySaved) return;
+        historySaved = true;
+
+        if (!undoRecorder.isEmpty()) {
+            ManagerRegistry.undo().addHistory(player, undoRecorder.build());
+        }
+    }
+
     @Override
     public synchronized void cancel() throws IllegalStateException {
         isRunning = false;
         cleanupWorker();
+        saveHistory();
+
+        // Cancelled part-way: only what was actually placed counts, the rest of the reservation is freed
+        if (!isCompleted && !limitsRecorded && limitReservation != null) {
+            settleReservation();
+        }
 
         if (player.isOnline() && !isCompleted) {
             String cancellationText = PlainTextComponentSerializer.plainText().serialize(configManager.getProgressOperationBlockReplacement());
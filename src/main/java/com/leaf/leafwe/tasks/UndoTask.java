@@ -1,37 +1,69 @@
 package com.leaf.leafwe.tasks;
 
 import com.leaf.leafwe.managers.ConfigManager;
+import com.leaf.leafwe.utils.BlockChangeSet;
+import com.leaf.leafwe.utils.BlockDataRegistry;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitRunnable;
 
-import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-
+import java.util.function.Consumer;
+
+/**
+ * Restores the before-image of a change set. Each block's current state is stored as the after-image just
+ * before it is overwritten, so the finished set can be handed back (inverted) for redo without another scan.
+ * In redo mode the blocks being placed are taken from the player's inventory instead of refunding removed ones.
+ * Blocks whose current data already equals the target are skipped entirely (no write, refund or packet), so
+ * undoing a job that was cancelled early only pays for what actually changed.
+ */
 public class UndoTask extends BukkitRunnable {
 
     private final Player player;
-    private final List<Map.Entry<Location, BlockState>> changes;
+    private final BlockChangeSet changeSet;
+    private final World world;
+    private final boolean redo;
+    private final Consumer<BlockChangeSet> onFinish;
     private final ConfigManager configManager;
+    private final long tickBudgetNanos;
+    private int nextIndex = 0;
     private int refundedItems = 0;
     private int blocksRestored = 0;
+    private int missingItems = 0;
     private boolean isRunning = true;
+    private boolean finished = false;
 
     private final Map<Material, Integer> dropBuffer = new HashMap<>();
     private Location lastDropLocation = null;
+    // Refunds for blocks near the player, added to the inventory as whole stacks once per tick
+    private final Map<Material, Integer> refundLedger = new EnumMap<>(Material.class);
+    private Location refundLocation = null;
 
     private static final double MAX_DISTANCE_SQUARED = 50 * 50;
+    // Below this many entries in one chunk, reading blocks one by one is cheaper than a chunk snapshot
+    private static final int SNAPSHOT_MIN_RUN = 64;
+
+    private ChunkSnapshot snapshot = null;
+    private int runEnd = -1;
 
-    public UndoTask(Player player, Map<Location, BlockState> changeMap, ConfigManager configManager) {
+    public UndoTask(Player player, BlockChangeSet changeSet, boolean redo, ConfigManager configManager,
+                    Consumer<BlockChangeSet> onFinish) {
         this.player = player;
-        this.changes = new ArrayList<>(changeMap.entrySet());
+        this.changeSet = changeSet;
+        this.world = changeSet.getWorld();
+        this.redo = redo;
         this.configManager = configManager;
+        this.onFinish = onFinish;
+        this.tickBudgetNanos = configManager.getUndoTickBudgetNanos();
     }
 
     @Override
@@ -41,39 +73,66 @@ public class UndoTask extends BukkitRunnable {
             return;
         }
 
-        if (changes.isEmpty()) {
+        if (world == null || nextIndex >= changeSet.size()) {
             finishTask();
             return;
         }
 
-        int blocksToRestore = 0;
-        int maxBlocksPerTick = 2000;
+        long deadline = System.nanoTime() + tickBudgetNanos;
         Location playerLoc = player.getLocation();
-
-        while (blocksToRestore < maxBlocksPerTick && !changes.isEmpty()) {
+        // The world may have changed since the last tick, start with a fresh snapshot
+        runEnd = -1;
+
+        // Indexes are chunk-ordered, so a tick's work stays within a few chunks
+        while (nextIndex < changeSet.size() && System.nanoTime() < deadline) {
+            int i = nextIndex++;
+            // Only recordAfter below gives an entry an after-image; skipped ones (already matching, missing
+            // items, errors) must not keep ids left over from an earlier replay
+            changeSet.clearAfter(i);
             try {
-                Map.Entry<Location, BlockState> entry = changes.remove(0);
-                Location location = entry.getKey();
-                BlockState oldState = entry.getValue();
+                BlockData target = changeSet.getBefore(i);
+                if (target == null) continue;
+
+                int x = changeSet.getX(i);
+                int y = changeSet.getY(i);
+                int z = changeSet.getZ(i);
+                if (i >= runEnd) {
+                    startChunkRun(i);
+                }
 
-                if (location == null || oldState == null) continue;
+                BlockData currentData = snapshot != null
+                        ? snapshot.getBlockData(x & 15, y, z & 15)
+                        : world.getBlockAt(x, y, z).getBlockData();
+                int currentId = BlockDataRegistry.idOf(currentData);
+                BlockState tile = changeSet.getBeforeTile(i);
 
-                Block currentBlock = location.getBlock();
-                Material currentMaterial = currentBlock.getType();
+                // Tile entities are always restored, matching data says nothing about their contents
+                if (tile == null && currentId == changeSet.getBeforeId(i)) {
+                    continue;
+                }
+
+                Block currentBlock = world.getBlockAt(x, y, z);
+                Material currentMaterial = currentData.getMaterial();
+                Material targetMaterial = target.getMaterial();
 
-                if (currentMaterial != oldState.getType() && currentMaterial != Material.AIR) {
+                if (redo && currentMaterial != targetMaterial && !targetMaterial.isAir() && targetMaterial.isItem()
+                        && !takeItem(targetMaterial)) {
+                    missingItems++;
+                    continue;
+                }
+
+                // Blocks without an item form (wall torches, fire, water, crops) have nothing to refund
+                if (!redo && currentMaterial != targetMaterial && currentMaterial != Material.AIR && currentMaterial.isItem()) {
                     try {
-                        boolean isNear = location.getWorld().equals(playerLoc.getWorld()) &&
+                        Location location = currentBlock.getLocation();
+                        boolean isNear = world.equals(playerLoc.getWorld()) &&
                                 location.distanceSquared(playerLoc) <= MAX_DISTANCE_SQUARED;
 
                         // Artık oyuncular eşyaları eklenti aracılığıyla çok uzaklara taşıyamıyor. Shulkerların amacı korunmuş oluyor.
                         if (isNear) {
-                            // Yakınsa doğrudan envantere ekleme
-                            HashMap<Integer, ItemStack> leftOver = player.getInventory().addItem(new ItemStack(currentMaterial, 1));
-
-                            if (!leftOver.isEmpty()) {
-                                player.getWorld().dropItem(playerLoc, leftOver.get(0));
-                            }
+                            // Yakınsa envantere eklenecek, tick sonunda toplu olarak
+                            refundLedger.merge(currentMaterial, 1, Integer::sum);
+                            refundLocation = playerLoc;
                         } else {
                             // Uzaktaysa envantere koymadan o bölgeye düşürme
                             dropBuffer.merge(currentMaterial, 1, Integer::sum);
@@ -84,16 +143,73 @@ public class UndoTask extends BukkitRunnable {
                     } catch (Exception ignored) { }
                 }
 
+                changeSet.recordAfter(i, currentId, currentBlock);
+
                 try {
-                    oldState.update(true, false);
+                    if (tile != null) {
+                        tile.update(true, false);
+                    } else {
+                        currentBlock.setBlockData(target, false);
+                    }
                     blocksRestored++;
                 } catch (Exception ignored) { }
 
-                blocksToRestore++;
-
             } catch (Exception ignored) { }
         }
 
+        flushRefunds();
+    }
+
+    /**
+     * Finds where the chunk of entry i ends (entries are chunk-ordered) and snapshots the chunk once if the run
+     * is long enough to be worth it.
+     */
+    private void startChunkRun(int i) {
+        int chunkX = changeSet.getX(i) >> 4;
+        int chunkZ = changeSet.getZ(i) >> 4;
+        int end = i + 1;
+        while (end < changeSet.size() && changeSet.getX(end) >> 4 == chunkX && changeSet.getZ(end) >> 4 == chunkZ) {
+            end++;
+        }
+
+        runEnd = end;
+        snapshot = end - i >= SNAPSHOT_MIN_RUN
+                ? world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false)
+                : null;
+    }
+
+    /**
+     * Applies the refund ledger: one addItem per full stack instead of one per block, whatever does not fit is
+     * dropped at the player as the stacks addItem hands back. Then flushes the far-away drop buffer.
+     */
+    private void flushRefunds() {
+        if (!refundLedger.isEmpty() && refundLocation != null) {
+            for (Map.Entry<Material, Integer> entry : refundLedger.entrySet()) {
+                Material material = entry.getKey();
+                int amount = entry.getValue();
+                int maxStack = Math.max(1, material.getMaxStackSize());
+
+                while (amount > 0) {
+                    int stackSize = Math.min(amount, maxStack);
+                    amount -= stackSize;
+
+                    // One bad stack must not keep the ledger from clearing, or it would be retried every tick
+                    try {
+                        ItemStack stack = new ItemStack(material, stackSize);
+                        if (!player.isOnline()) {
+                            refundLocation.getWorld().dropItem(refundLocation, stack);
+                            continue;
+                        }
+
+                        for (ItemStack leftOver : player.getInventory().addItem(stack).values()) {
+                            refundLocation.getWorld().dropItem(refundLocation, leftOver);
+                        }
+                    } catch (Exception ignored) { }
+                }
+            }
+            refundLedger.clear();
+        }
+
         flushDropBuffer();
     }
 
@@ -110,25 +226,50 @@ public class UndoTask extends BukkitRunnable {
 
             while (amount > 0) {
                 int stackSize = Math.min(amount, 64);
-                ItemStack stack = new ItemStack(material, stackSize);
-
-                lastDropLocation.getWorld().dropItem(lastDropLocation, stack);
-
                 amount -= stackSize;
+
+                try {
+                    lastDropLocation.getWorld().dropItem(lastDropLocation, new ItemStack(material, stackSize));
+                } catch (Exception ignored) { }
             }
         }
 
         dropBuffer.clear();
     }
 
+    /**
+     * Removes one plain (no meta) item of the material, like the placing tasks do.
+     */
+    private boolean takeItem(Material material) {
+        for (ItemStack item : player.getInventory().getContents()) {
+            if (item != null && item.getType() == material && !item.hasItemMeta()) {
+                if (item.getAmount() > 1) {
+                    item.setAmount(item.getAmount() - 1);
+                } else {
+                    player.getInventory().removeItem(item);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void finishTask() {
         isRunning = false;
 
-        flushDropBuffer();
+        flushRefunds();
+        handOver();
 
         try {
             if (player.isOnline()) {
-                if (refundedItems > 0) {
+                if (redo) {
+                    player.sendMessage(configManager.getMessage("redo-successful")
+                            .replaceText(config -> config.matchLiteral("%blocks%").replacement(String.valueOf(blocksRestored))));
+                    if (missingItems > 0) {
+                        player.sendMessage(configManager.getMessage("redo-missing-items")
+                                .replaceText(config -> config.matchLiteral("%count%").replacement(String.valueOf(missingItems))));
+                    }
+                } else if (refundedItems > 0) {
                     player.sendMessage(configManager.getMessage("undo-successful-with-refund")
                             .replaceText(config -> config.matchLiteral("%count%").replacement(String.valueOf(refundedItems)))
                             .replaceText(config -> config.matchLiteral("%blocks%").replacement(String.valueOf(blocksRestored))));
@@ -143,10 +284,26 @@ public class UndoTask extends BukkitRunnable {
         this.cancel();
     }
 
+    /**
+     * Passes the set, with the after-images recorded so far, back to the undo manager exactly once.
+     */
+    private void handOver() {
+        if (finished) return;
+        finished = true;
+        // Entries never reached (cancelled, player left) were not touched either
+        for (int i = nextIndex; i < changeSet.size(); i++) {
+            changeSet.clearAfter(i);
+        }
+        if (onFinish != null) {
+            onFinish.accept(changeSet);
+        }
+    }
+
     @Override
     public synchronized void cancel() throws IllegalStateException {
         isRunning = false;
-        flushDropBuffer();
+        flushRefunds();
+        handOver();
         super.cancel();
     }
 }
\ No newline at end of file
@@ -0,0 +1,233 @@
+package com.leaf.leafwe.utils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.TileState;
+import org.bukkit.block.data.BlockData;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One reversible edit in a single world, stored as arrays instead of a Location -> BlockState map.
+ * Positions are {@link PackedPos} longs and each keeps a before-image and an after-image as
+ * {@link BlockDataRegistry} ids, so a 40k block edit is one long and two int arrays. Block states are only kept
+ * for tile entities (chests, signs...), whose contents BlockData cannot carry.
+ *
+ * The after-image is filled in while the edit is undone; {@link #inverse()} then swaps the two images over the
+ * same arrays, so redo is just another undo of the inverse.
+ *
+ * Positions are grouped by chunk when the set is built, so walking the indexes in order finishes one chunk
+ * before moving to the next.
+ */
+public class BlockChangeSet {
+
+    public static final int UNKNOWN = -1;
+
+    private final String worldName;
+    private final int size;
+    private final long[] positions;
+    private final int[] before;
+    private final int[] after;
+
+    // index -> state, only for positions holding a tile entity
+    private final Map<Integer, BlockState> beforeTiles;
+    private final Map<Integer, BlockState> afterTiles;
+
+    private BlockChangeSet(String worldName, int size, long[] positions, int[] before, int[] after,
+                           Map<Integer, BlockState> beforeTiles, Map<Integer, BlockState> afterTiles) {
+        this.worldName = worldName;
+        this.size = size;
+        this.positions = positions;
+        this.before = before;
+        this.after = after;
+        this.beforeTiles = beforeTiles;
+        this.afterTiles = afterTiles;
+    }
+
+    /**
+     * Index order grouped by chunk. Sorts chunkKey << 20 | index as plain longs, which keeps the original
+     * order inside a chunk and avoids boxing. Sets too large for 20 index bits keep their original order.
+     */
+    private static int[] chunkOrder(long[] positions, int count) {
+        int[] order = new int[count];
+        if (count > (1 << 20)) {
+            for (int i = 0; i < count; i++) order[i] = i;
+            return order;
+        }
+
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            long chunkKey = ((long) ((PackedPos.getX(positions[i]) >> 4) & 0x3FFFFF) << 22)
+                    | ((PackedPos.getZ(positions[i]) >> 4) & 0x3FFFFF);
+            keys[i] = (chunkKey << 20) | i;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < count; i++) {
+            order[i] = (int) (keys[i] & 0xFFFFF);
+        }
+        return order;
+    }
+
+    private static int[] permute(int[] values, int[] order) {
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = values[order[i]];
+        }
+        return result;
+    }
+
+    private static long[] permute(long[] values, int[] order) {
+        long[] result = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = values[order[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Same positions with before and after swapped. Shares the arrays, nothing is copied.
+     */
+    public BlockChangeSet inverse() {
+        return new BlockChangeSet(worldName, size, positions, after, before, afterTiles, beforeTiles);
+    }
+
+    /**
+     * Stores what is currently at position i as its after-image; called just before the before-image is restored.
+     * Tile entities get a full snapshot, so a chest emptied or filled after the edit comes back as it was on redo.
+     * Positions left unrecorded (already matching) are skipped when the inverse is replayed.
+     */
+    public void recordAfter(int i, int dataId, Block current) {
+        after[i] = dataId;
+        // Non-snapshot state is only used to spot tile entities, like the Recorder does
+        if (current.getState(false) instanceof TileState) {
+            afterTiles.put(i, current.getState());
+        } else {
+            afterTiles.remove(i);
+        }
+    }
+
+    /**
+     * Marks position i as not touched by this replay. When a set is redone its after-image array is the
+     * before-image of the undo before it and still holds old ids, which the next undo must not write back.
+     */
+    public void clearAfter(int i) {
+        after[i] = UNKNOWN;
+        afterTiles.remove(i);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public World getWorld() {
+        return worldName != null ? Bukkit.getWorld(worldName) : null;
+    }
+
+    public int getX(int i) {
+        return PackedPos.getX(positions[i]);
+    }
+
+    public int getY(int i) {
+        return PackedPos.getY(positions[i]);
+    }
+
+    public int getZ(int i) {
+        return PackedPos.getZ(positions[i]);
+    }
+
+    public boolean hasBefore(int i) {
+        return before[i] != UNKNOWN;
+    }
+
+    public BlockData getBefore(int i) {
+        return before[i] == UNKNOWN ? null : BlockDataRegistry.get(before[i]);
+    }
+
+    public int getBeforeId(int i) {
+        return before[i];
+    }
+
+    /**
+     * Full state for tile entity positions (so contents come back), otherwise null.
+     */
+    public BlockState getBeforeTile(int i) {
+        return beforeTiles.get(i);
+    }
+
+    /**
+     * Rough retained size in bytes: the position and image arrays and a flat guess per tile entity snapshot.
+     * The BlockData itself lives in the shared registry.
+     */
+    public long estimatedBytes() {
+        return 128L + size * 16L + (beforeTiles.size() + afterTiles.size()) * 512L;
+    }
+
+    /**
+     * Collects before-images while an edit runs: the placing tasks call {@link #record(Block)} right before they
+     * overwrite a block, so only blocks that really change end up in the undo history, with the state they had
+     * at that moment. Main thread only.
+     */
+    public static class Recorder {
+        private String worldName;
+        private int count = 0;
+        private long[] positions = new long[64];
+        private int[] before = new int[64];
+        private final Map<Integer, BlockState> tiles = new HashMap<>();
+
+        public void record(Block block) {
+            // Non-snapshot state is only used to spot tile entities; those get a real snapshot
+            BlockState tile = block.getState(false) instanceof TileState ? block.getState() : null;
+            record(block.getWorld().getName(), block.getX(), block.getY(), block.getZ(), block.getBlockData(), tile);
+        }
+
+        void record(String world, int x, int y, int z, BlockData data, BlockState tile) {
+            if (worldName == null) {
+                worldName = world;
+            } else if (!worldName.equals(world)) {
+                return;
+            }
+
+            if (count == positions.length) {
+                int capacity = count * 2;
+                positions = Arrays.copyOf(positions, capacity);
+                before = Arrays.copyOf(before, capacity);
+            }
+
+            positions[count] = PackedPos.pack(x, y, z);
+            before[count] = BlockDataRegistry.idOf(data);
+            if (tile != null) {
+                tiles.put(count, tile);
+            }
+            count++;
+        }
+
+        public boolean isEmpty() {
+            return count == 0;
+        }
+
+        public BlockChangeSet build() {
+            int[] after = new int[count];
+            Arrays.fill(after, UNKNOWN);
+
+            int[] order = chunkOrder(positions, count);
+            Map<Integer, BlockState> sortedTiles = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                BlockState tile = tiles.get(order[i]);
+                if (tile != null) {
+                    sortedTiles.put(i, tile);
+                }
+            }
+
+            return new BlockChangeSet(worldName, count,
+                    permute(positions, order), permute(before, order), after, sortedTiles, new HashMap<>());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.leaf.leafwe.utils;
+
+import org.bukkit.block.data.BlockData;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-wide interning of BlockData. Every distinct block state gets a small int id once, and undo history,
+ * copied blockstates and the tasks keep the id instead of their own BlockData copies; equal states compare
+ * with ==. The shared instance is only looked up when writing to the world and must never be mutated.
+ *
+ * Ids are never released. The number of distinct states in a game version is bounded (a few tens of
+ * thousands), so the table stays small.
+ */
+public final class BlockDataRegistry {
+
+    private static final ConcurrentHashMap<BlockData, Integer> ids = new ConcurrentHashMap<>();
+    private static volatile BlockData[] values = new BlockData[256];
+    private static int nextId = 0;
+
+    private BlockDataRegistry() {
+    }
+
+    /**
+     * Id of the state, registering a private copy of it if it is new. Safe from any thread.
+     */
+    public static int idOf(BlockData data) {
+        Integer id = ids.get(data);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (BlockDataRegistry.class) {
+            id = ids.get(data);
+            if (id != null) {
+                return id;
+            }
+
+            int newId = nextId++;
+            BlockData[] table = values;
+            if (newId == table.length) {
+                table = Arrays.copyOf(table, table.length * 2);
+            }
+            table[newId] = data.clone();
+            values = table;
+            // Published after the table, so anyone who can see the id can also read it
+            ids.put(table[newId], newId);
+            return newId;
+        }
+    }
+
+    public static BlockData get(int id) {
+        return values[id];
+    }
+
+    public static int size() {
+        return ids.size();
+    }
+}
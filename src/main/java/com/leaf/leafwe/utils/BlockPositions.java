@@ -0,0 +1,58 @@
+package com.leaf.leafwe.utils;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.Arrays;
+
+/**
+ * The blocks a job will touch, as packed longs plus a single world reference. Replaces List&lt;Location&gt;,
+ * which cost an object per block; tasks walk it with an index instead of removing from the front.
+ */
+public class BlockPositions {
+
+    private final World world;
+    private long[] positions = new long[64];
+    private int size = 0;
+
+    public BlockPositions(World world) {
+        this.world = world;
+    }
+
+    public void add(int x, int y, int z) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        positions[size++] = PackedPos.pack(x, y, z);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public long get(int i) {
+        return positions[i];
+    }
+
+    public Block getBlock(int i) {
+        long packed = positions[i];
+        return world.getBlockAt(PackedPos.getX(packed), PackedPos.getY(packed), PackedPos.getZ(packed));
+    }
+
+    /**
+     * A new Location for position i; for APIs that need one (protection checks, effects), not for storage.
+     */
+    public Location getLocation(int i) {
+        long packed = positions[i];
+        return new Location(world, PackedPos.getX(packed), PackedPos.getY(packed), PackedPos.getZ(packed));
+    }
+}
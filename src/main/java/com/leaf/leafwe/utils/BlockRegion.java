@@ -0,0 +1,143 @@
+package com.leaf.leafwe.utils;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+/**
+ * Bounds of a selection, the only thing an edit keeps while it waits for /lwe confirm. Block positions are
+ * enumerated from it when the job actually starts, so an unconfirmed request holds a few ints, not a list
+ * of every block in the selection.
+ */
+public class BlockRegion {
+
+    private final World world;
+    private final int minX, minY, minZ;
+    private final int maxX, maxY, maxZ;
+
+    public BlockRegion(World world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        this.world = world;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    public static BlockRegion of(Location pos1, Location pos2) {
+        return new BlockRegion(pos1.getWorld(),
+                Math.min(pos1.getBlockX(), pos2.getBlockX()),
+                Math.min(pos1.getBlockY(), pos2.getBlockY()),
+                Math.min(pos1.getBlockZ(), pos2.getBlockZ()),
+                Math.max(pos1.getBlockX(), pos2.getBlockX()),
+                Math.max(pos1.getBlockY(), pos2.getBlockY()),
+                Math.max(pos1.getBlockZ(), pos2.getBlockZ()));
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+
+    public long getVolume() {
+        return (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+    }
+
+    /**
+     * Number of blocks on the four side faces, without enumerating them.
+     */
+    public long getWallVolume() {
+        long sizeX = maxX - minX + 1;
+        long sizeZ = maxZ - minZ + 1;
+        long columns = sizeX <= 2 || sizeZ <= 2 ? sizeX * sizeZ : 2 * sizeX + 2 * sizeZ - 4;
+        return columns * (maxY - minY + 1);
+    }
+
+    public BlockPositions positions() {
+        BlockPositions positions = new BlockPositions(world);
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    positions.add(x, y, z);
+                }
+            }
+        }
+        return positions;
+    }
+
+    public BlockPositions wallPositions() {
+        BlockPositions positions = new BlockPositions(world);
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    if (x == minX || x == maxX || z == minZ || z == maxZ) {
+                        positions.add(x, y, z);
+                    }
+                }
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Positions currently holding the given material. The scan stops once limit matches are found, so a caller
+     * checking against a maximum can pass maximum + 1 and never collect more than it would accept. Main thread only.
+     */
+    public BlockPositions positionsOf(Material material, int limit) {
+        BlockPositions positions = new BlockPositions(world);
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    if (world.getBlockAt(x, y, z).getType() == material) {
+                        positions.add(x, y, z);
+                        if (positions.size() >= limit) {
+                            return positions;
+                        }
+                    }
+                }
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Like {@link #positionsOf} but only counts, nothing is stored. Main thread only.
+     */
+    public int count(Material material, int limit) {
+        int count = 0;
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    if (world.getBlockAt(x, y, z).getType() == material && ++count >= limit) {
+                        return count;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,27 @@
+package com.leaf.leafwe.utils;
+
+/**
+ * Block coordinates packed into one long, same layout as vanilla's BlockPos: 26 bits x, 26 bits z, 12 bits y.
+ * Covers the whole world border and build height. The world is kept once per job, not per position.
+ */
+public final class PackedPos {
+
+    private PackedPos() {
+    }
+
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    public static int getX(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    public static int getY(long packed) {
+        return (int) (packed << 52 >> 52);
+    }
+
+    public static int getZ(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+}
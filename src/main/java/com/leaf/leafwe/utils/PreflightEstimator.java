@@ -0,0 +1,232 @@
+package com.leaf.leafwe.utils;
+
+import com.leaf.leafwe.LeafWE;
+import com.leaf.leafwe.managers.ConfigManager;
+import com.leaf.leafwe.managers.ProtectionManager;
+import com.leaf.leafwe.registry.ManagerRegistry;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Estimates what a job will do before it is confirmed. On the main thread it only snapshots a sample of the
+ * region's loaded chunks, probes protection at a few points per sampled chunk and counts the player's items;
+ * the snapshots are scanned off-thread and the result is extrapolated to the whole region. Unloaded chunks are
+ * never loaded for an estimate. When every chunk of the region was sampled the counts are exact.
+ */
+public final class PreflightEstimator {
+
+    public enum Mode {
+        FILL,     // /set: every block becomes the target
+        WALLS,    // /wall: only the four side faces
+        REPLACE   // /replace: only blocks of the source material
+    }
+
+    private PreflightEstimator() {
+    }
+
+    /**
+     * Must be called on the main thread; the returned future completes on a worker thread.
+     */
+    public static CompletableFuture<Estimate> estimate(LeafWE plugin, Player player, BlockRegion region, Mode mode,
+                                                       Material from, Material to) {
+        ConfigManager config = ManagerRegistry.config();
+        World world = region.getWorld();
+
+        List<int[]> candidates = new ArrayList<>();
+        for (int cx = region.getMinX() >> 4; cx <= region.getMaxX() >> 4; cx++) {
+            for (int cz = region.getMinZ() >> 4; cz <= region.getMaxZ() >> 4; cz++) {
+                if (mode == Mode.WALLS && !touchesWall(region, cx, cz)) continue;
+                candidates.add(new int[]{cx, cz});
+            }
+        }
+
+        int sampleSize = Math.min(candidates.size(), config.getPreflightSampleChunks());
+        List<ChunkSnapshot> snapshots = new ArrayList<>(sampleSize);
+        int protectedPoints = 0;
+        int probedPoints = 0;
+        ProtectionManager protection = ManagerRegistry.protection();
+        boolean checkProtection = protection != null && !player.hasPermission("leafwe.bypass.protection");
+
+        for (int i = 0; i < sampleSize; i++) {
+            // Spread evenly over the candidates rather than taking the first few
+            int[] chunk = candidates.get((int) ((long) i * candidates.size() / sampleSize));
+            if (!world.isChunkLoaded(chunk[0], chunk[1])) continue;
+
+            snapshots.add(world.getChunkAt(chunk[0], chunk[1]).getChunkSnapshot(false, false, false));
+
+            if (checkProtection) {
+                for (Location point : probePoints(region, world, chunk[0], chunk[1])) {
+                    probedPoints++;
+                    if (!protection.canBuild(player, point)) {
+                        protectedPoints++;
+                    }
+                }
+            }
+        }
+
+        int available = 0;
+        for (ItemStack item : player.getInventory().getContents()) {
+            if (item != null && item.getType() == to && !item.hasItemMeta()) {
+                available += item.getAmount();
+            }
+        }
+
+        long volume = mode == Mode.WALLS ? region.getWallVolume() : region.getVolume();
+        boolean exact = !candidates.isEmpty() && snapshots.size() == candidates.size();
+        double protectedRatio = probedPoints > 0 ? (double) protectedPoints / probedPoints : 0.0;
+        int itemsAvailable = available;
+        int probed = probedPoints;
+        int speed = config.getSpeed();
+        double mspt = Bukkit.getAverageTickTime();
+
+        return CompletableFuture.supplyAsync(() -> {
+            long sampled = 0;
+            long changes = 0;
+            for (ChunkSnapshot snapshot : snapshots) {
+                long[] counts = scan(snapshot, region, mode, from, to);
+                sampled += counts[0];
+                changes += counts[1];
+            }
+
+            long estimatedChanges;
+            if (exact) {
+                estimatedChanges = changes;
+            } else if (sampled > 0) {
+                estimatedChanges = Math.round((double) changes / sampled * volume);
+            } else {
+                // Nothing loaded to look at, assume the worst for fills; replace falls back to a real count
+                estimatedChanges = mode == Mode.REPLACE ? -1 : volume;
+            }
+
+            // Placement tasks handle one position per run, including the ones they skip
+            long positions = mode == Mode.REPLACE ? Math.max(0, estimatedChanges) : volume;
+            double tps = Math.min(20.0, 1000.0 / Math.max(50.0, mspt));
+            long seconds = Math.round(positions * speed / tps);
+
+            return new Estimate(mode, volume, snapshots.size(), exact, estimatedChanges,
+                    Math.round(Math.max(0, estimatedChanges) * protectedRatio), protectedRatio, probed,
+                    itemsAvailable, seconds);
+        });
+    }
+
+    /**
+     * Returns {blocks of the job inside this chunk, blocks that would change}.
+     */
+    private static long[] scan(ChunkSnapshot snapshot, BlockRegion region, Mode mode, Material from, Material to) {
+        int baseX = snapshot.getX() << 4;
+        int baseZ = snapshot.getZ() << 4;
+        int startX = Math.max(region.getMinX(), baseX);
+        int endX = Math.min(region.getMaxX(), baseX + 15);
+        int startZ = Math.max(region.getMinZ(), baseZ);
+        int endZ = Math.min(region.getMaxZ(), baseZ + 15);
+
+        long sampled = 0;
+        long changes = 0;
+        for (int x = startX; x <= endX; x++) {
+            for (int z = startZ; z <= endZ; z++) {
+                if (mode == Mode.WALLS && x != region.getMinX() && x != region.getMaxX()
+                        && z != region.getMinZ() && z != region.getMaxZ()) {
+                    continue;
+                }
+                for (int y = region.getMinY(); y <= region.getMaxY(); y++) {
+                    Material type = snapshot.getBlockType(x & 15, y, z & 15);
+                    sampled++;
+                    if (mode == Mode.REPLACE ? type == from : type != to) {
+                        changes++;
+                    }
+                }
+            }
+        }
+        return new long[]{sampled, changes};
+    }
+
+    private static boolean touchesWall(BlockRegion region, int cx, int cz) {
+        int baseX = cx << 4;
+        int baseZ = cz << 4;
+        return (region.getMinX() >= baseX && region.getMinX() <= baseX + 15)
+                || (region.getMaxX() >= baseX && region.getMaxX() <= baseX + 15)
+                || (region.getMinZ() >= baseZ && region.getMinZ() <= baseZ + 15)
+                || (region.getMaxZ() >= baseZ && region.getMaxZ() <= baseZ + 15);
+    }
+
+    /**
+     * Corners and centre of the part of the region inside the chunk, at mid height.
+     */
+    private static List<Location> probePoints(BlockRegion region, World world, int cx, int cz) {
+        int startX = Math.max(region.getMinX(), cx << 4);
+        int endX = Math.min(region.getMaxX(), (cx << 4) + 15);
+        int startZ = Math.max(region.getMinZ(), cz << 4);
+        int endZ = Math.min(region.getMaxZ(), (cz << 4) + 15);
+        int y = (region.getMinY() + region.getMaxY()) / 2;
+
+        return List.of(
+                new Location(world, startX, y, startZ),
+                new Location(world, endX, y, startZ),
+                new Location(world, startX, y, endZ),
+                new Location(world, endX, y, endZ),
+                new Location(world, (startX + endX) / 2, y, (startZ + endZ) / 2));
+    }
+
+    public static class Estimate {
+        public final Mode mode;
+        public final long volume;
+        public final int sampledChunks;
+        public final boolean exact;
+        public final long estimatedChanges;   // -1 when unknown
+        public final long estimatedProtected;
+        public final double protectedRatio;
+        public final int probedPoints;
+        public final int itemsAvailable;
+        public final long estimatedSeconds;
+
+        public Estimate(Mode mode, long volume, int sampledChunks, boolean exact, long estimatedChanges,
+                        long estimatedProtected, double protectedRatio, int probedPoints, int itemsAvailable,
+                        long estimatedSeconds) {
+            this.mode = mode;
+            this.volume = volume;
+            this.sampledChunks = sampledChunks;
+            this.exact = exact;
+            this.estimatedChanges = estimatedChanges;
+            this.estimatedProtected = estimatedProtected;
+            this.protectedRatio = protectedRatio;
+            this.probedPoints = probedPoints;
+            this.itemsAvailable = itemsAvailable;
+            this.estimatedSeconds = estimatedSeconds;
+        }
+
+        public boolean isKnown() {
+            return estimatedChanges >= 0;
+        }
+
+        public long getItemsRequired() {
+            return Math.max(0, estimatedChanges - estimatedProtected);
+        }
+
+        /**
+         * Message key explaining why the job cannot do anything useful, or null if it may go ahead.
+         * Only clear-cut cases are rejected: an exact count of zero, every probed point protected, or
+         * (if configured) far too few items.
+         */
+        public String getRejectionKey(double minItemCoverage) {
+            if (exact && estimatedChanges == 0) {
+                return mode == Mode.REPLACE ? "preflight-nothing-to-replace" : "preflight-nothing-to-change";
+            }
+            if (probedPoints >= 5 && protectedRatio >= 1.0) {
+                return "preflight-all-protected";
+            }
+            if (minItemCoverage > 0 && isKnown() && itemsAvailable < getItemsRequired() * minItemCoverage) {
+                return "preflight-not-enough-items";
+            }
+            return null;
+        }
+    }
+}